@@ -0,0 +1,35 @@
+package com.api.cargosimpleclient.Controllers;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.function.Function;
+
+/**
+ * Фабрики значений ячеек таблиц.
+ * <p>
+ * В отличие от {@link javafx.scene.control.cell.PropertyValueFactory}
+ * не использует рефлексию и обращается к свойству записи напрямую,
+ * поэтому ленивые JavaFX Properties DTO создаются только для строк,
+ * попавших в видимые ячейки. Пустые строки виртуального списка,
+ * еще не загруженные с сервера, отображаются пустыми ячейками.
+ */
+public final class CellValues {
+
+    private CellValues() {
+    }
+
+    /**
+     * Создание фабрики значений по ссылке на метод свойства.
+     *
+     * @param property Метод получения свойства записи, например {@code ProductDTO::nameProperty}
+     * @param <S> Тип записи
+     * @param <T> Тип значения ячейки
+     * @return Фабрика значений для {@link TableColumn#setCellValueFactory(Callback)}
+     */
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> of(
+            Function<S, ? extends ObservableValue<T>> property) {
+        return cellData -> cellData.getValue() == null ? null : property.apply(cellData.getValue());
+    }
+}
@@ -0,0 +1,45 @@
+package com.api.cargosimpleclient.Controllers;
+
+import com.api.cargosimpleclient.Stores.EntityStore;
+import javafx.beans.binding.Bindings;
+import javafx.scene.control.Label;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Отметка "данные на" для страниц со списками.
+ * <p>
+ * Показывает момент, на который данные хранилища совпадали с сервером.
+ * Сразу после запуска таблица может отображать снимок прошлого сеанса,
+ * и отметка позволяет отличить его от обновленных данных.
+ */
+public final class DataAsOfLabels {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    private DataAsOfLabels() {
+    }
+
+    /**
+     * Привязка текста и видимости метки к моменту актуальности данных.
+     * <p>
+     * Привязки JavaFX подписываются на свойство хранилища через слабые
+     * ссылки, поэтому метка кэшированного представления не удерживается
+     * хранилищем. Пока полного списка нет, метка скрыта.
+     *
+     * @param label Метка на странице
+     * @param store Хранилище, данные которого отображает страница
+     */
+    public static void bind(Label label, EntityStore<?> store) {
+        label.textProperty().bind(Bindings.createStringBinding(
+                () -> format(store.getDataAsOf()), store.dataAsOfProperty()));
+        label.visibleProperty().bind(store.dataAsOfProperty().isNotNull());
+        label.managedProperty().bind(label.visibleProperty());
+    }
+
+    private static String format(Instant asOf) {
+        return asOf == null ? "" : "Данные на: " + FORMAT.format(asOf.atZone(ZoneId.systemDefault()));
+    }
+}
@@ -1,19 +1,16 @@
 package com.api.cargosimpleclient.Controllers.Products;
 
+import com.api.cargosimpleclient.DTO.Money;
 import com.api.cargosimpleclient.DTO.ProductDTO;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.math.BigDecimal;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Map;
 
 /**
  * Контроллер для добавления нового товара в систему.
@@ -62,6 +59,10 @@ public class AddProductController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private ProductAddedListener productAddedListener;
 
     /**
@@ -79,26 +80,12 @@ public class AddProductController {
         try {
             collectProductData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-            Map<String, Object> productMap = objectMapper.convertValue(productDTO, Map.class);
-            productMap.remove("id");
-
+            String jsonProduct = codecService.writeWithoutId(productDTO);
 
-            String jsonProduct = objectMapper.writeValueAsString(productMap);
-
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/products"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonProduct))
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.post("/api/products", jsonProduct);
 
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                ProductDTO savedProduct = objectMapper.readValue(response.body(), ProductDTO.class);
+                ProductDTO savedProduct = codecService.read(response.body(), ProductDTO.class);
 
                 if (productAddedListener != null) {
                     productAddedListener.onProductAdded(savedProduct);
@@ -191,6 +178,7 @@ public class AddProductController {
      * - Обязательность заполнения ключевых полей
      * - Корректность числовых значений
      * - Логические ограничения (например, неотрицательность цен)
+     * - Не более {@value Money#SCALE} знаков после запятой в ценах
      *
      * @throws IllegalArgumentException При нарушении правил валидации
      */
@@ -222,5 +210,10 @@ public class AddProductController {
         if (sellingPrice.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Цена продажи не может быть отрицательной ");
         }
+
+        if (!Money.isExact(purchasePrice) || !Money.isExact(sellingPrice)) {
+            throw new IllegalArgumentException(
+                    "Цены могут содержать не более " + Money.SCALE + " знаков после запятой");
+        }
     }
 }
\ No newline at end of file
@@ -1,17 +1,16 @@
 package com.api.cargosimpleclient.Controllers.Products;
 
+import com.api.cargosimpleclient.DTO.Money;
 import com.api.cargosimpleclient.DTO.ProductDTO;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.math.BigDecimal;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
 /**
@@ -62,6 +61,10 @@ public class EditProductController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private ProductUpdatedListener productUpdatedListener;
 
     /**
@@ -77,22 +80,14 @@ public class EditProductController {
     @FXML
     private void handleUpdateProduct() {
         try {
-            validateAndUpdateProductData();
+            ProductDTO editedProduct = validateAndUpdateProductData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonProduct = objectMapper.writeValueAsString(productDTO);
+            String jsonProduct = codecService.write(editedProduct);
 
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/products/" + productDTO.getId()))
-                    .header("Content-Type", "application/json")
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonProduct))
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.put("/api/products/" + productDTO.getId(), jsonProduct);
 
             if (response.statusCode() == 200) {
-                ProductDTO updatedProduct = objectMapper.readValue(response.body(), ProductDTO.class);
+                ProductDTO updatedProduct = codecService.read(response.body(), ProductDTO.class);
 
                 if (productUpdatedListener != null) {
                     Platform.runLater(() ->
@@ -178,11 +173,16 @@ public class EditProductController {
      * 1. Проверка обязательных текстовых полей
      * 2. Парсинг и проверка числовых значений
      * 3. Логический контроль (например, диапазон складских запасов)
-     * 4. Обновление объекта DTO
+     * 4. Формирование нового объекта DTO с идентификатором редактируемого товара
+     * <p>
+     * Редактируемая строка таблицы не изменяется: она будет заменена
+     * ответом сервера, что сохраняет корректность статистики списка
+     * и исходные данные при ошибке обновления.
      *
+     * @return Обновленные данные товара
      * @throws IllegalArgumentException При нарушении правил валидации
      */
-    private void validateAndUpdateProductData() {
+    private ProductDTO validateAndUpdateProductData() {
 
         String articleNumber = validateAndTrimField(articleNumberField, "Артикул");
         String name = validateAndTrimField(nameField, "Название");
@@ -191,9 +191,9 @@ public class EditProductController {
         String manufacturer = validateAndTrimField(manufacturerField, "Производитель");
 
         BigDecimal purchasePrice = parseAndValidateBigDecimal(
-                purchasePriceField, "Цена закупки");
+                purchasePriceField, "Цена закупки", productDTO.getPurchasePrice());
         BigDecimal sellingPrice = parseAndValidateBigDecimal(
-                sellingPriceField, "Цена продажи");
+                sellingPriceField, "Цена продажи", productDTO.getSellingPrice());
 
         int minStockLevel = parseAndValidateInteger(
                 minStockLevelField, "Минимальный уровень запаса");
@@ -205,15 +205,18 @@ public class EditProductController {
                     "Минимальный уровень запаса не может превышать максимальный");
         }
 
-        productDTO.setArticleNumber(articleNumber);
-        productDTO.setName(name);
-        productDTO.setDescription(description);
-        productDTO.setCategory(category);
-        productDTO.setManufacturer(manufacturer);
-        productDTO.setPurchasePrice(purchasePrice);
-        productDTO.setSellingPrice(sellingPrice);
-        productDTO.setMinStockLevel(minStockLevel);
-        productDTO.setMaxStockLevel(maxStockLevel);
+        ProductDTO editedProduct = new ProductDTO();
+        editedProduct.setId(productDTO.getId());
+        editedProduct.setArticleNumber(articleNumber);
+        editedProduct.setName(name);
+        editedProduct.setDescription(description);
+        editedProduct.setCategory(category);
+        editedProduct.setManufacturer(manufacturer);
+        editedProduct.setPurchasePrice(purchasePrice);
+        editedProduct.setSellingPrice(sellingPrice);
+        editedProduct.setMinStockLevel(minStockLevel);
+        editedProduct.setMaxStockLevel(maxStockLevel);
+        return editedProduct;
     }
 
     /**
@@ -243,21 +246,31 @@ public class EditProductController {
      * Проверки:
      * - Корректность числового формата
      * - Неотрицательность значения
+     * - Не более {@value Money#SCALE} знаков после запятой, если значение
+     *   изменено; цена, сохраненная сервером с большим числом знаков,
+     *   принимается без изменений, чтобы не мешать правке других полей
      *
      * @param field Текстовое поле для парсинга
      * @param fieldName Название поля для сообщения об ошибке
+     * @param originalValue Исходное значение поля или null
      * @return Провалидированное значение
      *
-     * @throws IllegalArgumentException При ошибках парсинга или отрицательном значении
+     * @throws IllegalArgumentException При ошибках парсинга, отрицательном значении
+     *                                  или лишних знаках после запятой
      */
     private BigDecimal parseAndValidateBigDecimal(
-            TextField field, String fieldName) {
+            TextField field, String fieldName, BigDecimal originalValue) {
         try {
             BigDecimal value = new BigDecimal(field.getText().trim());
             if (value.compareTo(BigDecimal.ZERO) < 0) {
                 throw new IllegalArgumentException(
                         fieldName + " не может быть меньше " + BigDecimal.ZERO);
             }
+            boolean unchanged = originalValue != null && value.compareTo(originalValue) == 0;
+            if (!unchanged && !Money.isExact(value)) {
+                throw new IllegalArgumentException(
+                        fieldName + " может содержать не более " + Money.SCALE + " знаков после запятой");
+            }
             return value;
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException(
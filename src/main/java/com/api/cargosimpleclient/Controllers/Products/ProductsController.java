@@ -1,12 +1,27 @@
 package com.api.cargosimpleclient.Controllers.Products;
 
+import com.api.cargosimpleclient.Controllers.CellValues;
+import com.api.cargosimpleclient.Controllers.DataAsOfLabels;
+import com.api.cargosimpleclient.Controllers.TableSorting;
 import com.api.cargosimpleclient.DTO.ProductDTO;
-import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.api.cargosimpleclient.Filters.CompiledFilter;
+import com.api.cargosimpleclient.Filters.FilterCompiler;
+import com.api.cargosimpleclient.Paging.PagedList;
 import com.api.cargosimpleclient.Services.AlertService;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.ApiResponseException;
 import com.api.cargosimpleclient.Services.LoadViewService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.StockIndexService.StockTotals;
+import com.api.cargosimpleclient.Services.ViewLifecycle;
+import com.api.cargosimpleclient.Statistics.ProductStatistics;
+import com.api.cargosimpleclient.Stores.EntityStore;
+import com.api.cargosimpleclient.Stores.ProductStore;
+import com.api.cargosimpleclient.Stores.StockStore;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ListChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
@@ -16,7 +31,6 @@ import javafx.geometry.Insets;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
@@ -27,17 +41,11 @@ import javafx.util.Duration;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Контроллер управления списком товаров.
@@ -55,7 +63,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Кнопки управления
  * - Статистические метки
  */
-public class ProductsController {
+public class ProductsController implements ViewLifecycle {
+
+    private static final FilterCompiler<ProductDTO> FILTER_COMPILER = new FilterCompiler<ProductDTO>()
+            .stringField("Название", ProductDTO::getName)
+            .stringField("Артикул", ProductDTO::getArticleNumber)
+            .pooledStringField("Категория", ProductDTO::getCategory)
+            .pooledStringField("Производитель", ProductDTO::getManufacturer)
+            .moneyField("Цена закупки", ProductDTO::purchasePriceMinorUnits)
+            .moneyField("Цена продажи", ProductDTO::sellingPriceMinorUnits)
+            .intField("Минимальный остаток", ProductDTO::getMinStockLevel)
+            .intField("Максимальный остаток", ProductDTO::getMaxStockLevel);
 
     @FXML
     private TableView<ProductDTO> productsTable;
@@ -135,7 +153,11 @@ public class ProductsController {
     @FXML
     private Label marginLabel;
 
-    private ObservableList<ProductDTO> masterProductList;
+    @FXML
+    private Label loadingProgressLabel;
+
+    @FXML
+    private Label dataAsOfLabel;
 
     private FilteredList<ProductDTO> filteredProductList;
 
@@ -143,31 +165,69 @@ public class ProductsController {
 
     private final AlertService alertService = new AlertService();
 
-    private final Map<Long, Integer> stockQuantityCache = new ConcurrentHashMap<>();
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final ProductStore productStore = ProductStore.getInstance();
+
+    private final StockStore stockStore = StockStore.getInstance();
+
+    private final ProductStatistics productStatistics = productStore.getStatistics();
+
+    private SortedList<ProductDTO> sortedProductList;
+
+    /*
+     * Хранилища живут дольше представления, поэтому подписки на них
+     * выполняются через слабые слушатели, а сильные ссылки держит контроллер.
+     */
+    private final ChangeListener<EntityStore.State> storeStateListener = (_, _, state) -> applyStoreState(state);
+
+    private final ChangeListener<Number> loadingProgressListener = (_, _, received) -> {
+        if (productStore.getState() == EntityStore.State.LOADING) {
+            showLoadingProgress(received.longValue());
+        }
+    };
+
+    private final InvalidationListener stockTotalsListener = _ -> productsTable.refresh();
 
     /**
      * Инициализация контроллера при загрузке представления.
      * <p>
      * Выполняемые действия:
-     * 1. Настройка списков данных
+     * 1. Настройка списков данных поверх общего хранилища товаров
      * 2. Конфигурация таблицы
-     * 3. Загрузка товаров с сервера
+     * 3. Загрузка товаров, если они еще не загружены
      * 4. Настройка обработчиков событий
      * 5. Первичное обновление статистики
      * 6. Настройка визуальных индикаторов складских остатков
      */
     @FXML
     public void initialize() {
-        masterProductList = FXCollections.observableArrayList();
-        filteredProductList = new FilteredList<>(masterProductList, p -> true);
+        filteredProductList = new FilteredList<>(productStore.items(), p -> true);
+        productStatistics.setOnUpdated(this::updateStatistics);
+        updateStatistics();
 
-        SortedList<ProductDTO> sortedProductList = new SortedList<>(filteredProductList);
-        sortedProductList.comparatorProperty().bind(productsTable.comparatorProperty());
+        sortedProductList = new SortedList<>(filteredProductList);
+        TableSorting.bind(productsTable, sortedProductList, Map.of(
+                idColumn, TableSorting.by(ProductDTO::getId),
+                articleNumberColumn, TableSorting.byIgnoreCase(ProductDTO::getArticleNumber),
+                nameColumn, TableSorting.byIgnoreCase(ProductDTO::getName),
+                descriptionColumn, TableSorting.by(ProductDTO::getDescription),
+                categoryColumn, TableSorting.by(ProductDTO::getCategory),
+                manufacturerColumn, TableSorting.by(ProductDTO::getManufacturer),
+                purchasePriceColumn, Comparator.comparingLong(ProductDTO::purchasePriceMinorUnits),
+                sellingPriceColumn, Comparator.comparingLong(ProductDTO::sellingPriceMinorUnits),
+                minStockLevelColumn, TableSorting.by(ProductDTO::getMinStockLevel),
+                maxStockLevelColumn, TableSorting.by(ProductDTO::getMaxStockLevel)));
 
         productsTable.setItems(sortedProductList);
 
         setupTableColumns();
-        loadProductsFromServer();
+
+        productStore.stateProperty().addListener(new WeakChangeListener<>(storeStateListener));
+        productStore.receivedProperty().addListener(new WeakChangeListener<>(loadingProgressListener));
+        DataAsOfLabels.bind(dataAsOfLabel, productStore);
+        stockStore.totalsVersionProperty().addListener(new WeakInvalidationListener(stockTotalsListener));
+        loadProducts();
 
         editProductButton.setDisable(true);
 
@@ -203,8 +263,6 @@ public class ProductsController {
         addProductButton.setOnAction(event -> openAddProductDialog());
         deleteProductButton.setOnAction(event -> deleteProduct());
 
-        updateStatistics();
-
         productsTable.setRowFactory(tv -> {
             TableRow<ProductDTO> row = new TableRow<ProductDTO>() {
                 private Tooltip tooltip;
@@ -213,7 +271,9 @@ public class ProductsController {
                 protected void updateItem(ProductDTO product, boolean empty) {
                     super.updateItem(product, empty);
 
-                    if (empty || product == null) {
+                    Integer totalStockQuantity = empty || product == null ? null : getTotalStockQuantity(product);
+
+                    if (totalStockQuantity == null) {
                         setStyle("");
                         if (tooltip != null) {
                             Tooltip.uninstall(this, tooltip);
@@ -221,8 +281,6 @@ public class ProductsController {
                         return;
                     }
 
-                    int totalStockQuantity = getTotalStockQuantity(product);
-
                     if (totalStockQuantity > product.getMaxStockLevel()) {
                         setStyle("-fx-background-color: #4CAF50;");
                         tooltip = new Tooltip(
@@ -277,8 +335,8 @@ public class ProductsController {
             return row;
         });
 
-        masterProductList.addListener((ListChangeListener<ProductDTO>) change -> {
-            updateProductStockHighlighting();
+        filteredProductList.addListener((ListChangeListener<ProductDTO>) change -> {
+            productsTable.refresh();
         });
     }
 
@@ -324,8 +382,8 @@ public class ProductsController {
      * <p>
      * Особенности:
      * - Использование JavaFX модального окна
-     * - Асинхронное добавление товара в список
-     * - Обновление статистики после добавления
+     * - Асинхронное добавление товара в общее хранилище
+     * - Обновление всех открытых представлений после добавления
      */
     @FXML
     private void openAddProductDialog() {
@@ -336,11 +394,7 @@ public class ProductsController {
             AddProductController addController = loader.getController();
 
             addController.setOnProductAddedListener(newProduct -> {
-                Platform.runLater(() -> {
-                    if (masterProductList != null) {
-                        masterProductList.add(newProduct);
-                    }
-                });
+                Platform.runLater(() -> productStore.put(newProduct));
             });
 
             Stage dialogStage = new Stage();
@@ -350,7 +404,6 @@ public class ProductsController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог добавления товара");
         }
@@ -391,14 +444,7 @@ public class ProductsController {
             editController.setProductToEdit(selectedProduct);
 
             editController.setOnProductUpdatedListener(updatedProduct -> {
-                Platform.runLater(() -> {
-                    if (masterProductList != null) {
-                        int index = masterProductList.indexOf(selectedProduct);
-                        if (index != -1) {
-                            masterProductList.set(index, updatedProduct);
-                        }
-                    }
-                });
+                Platform.runLater(() -> productStore.put(updatedProduct));
             });
 
             Stage dialogStage = new Stage();
@@ -408,7 +454,6 @@ public class ProductsController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог редактирования");
         }
@@ -490,88 +535,20 @@ public class ProductsController {
         filterTextField.clear();
 
         filteredProductList.setPredicate(product -> true);
-
-        updateStatistics();
-    }
-
-    /**
-     * Обновление визуального выделения товаров по складским остаткам.
-     * <p>
-     * Асинхронный процесс:
-     * 1. Параллельный сбор данных о количестве товаров
-     * 2. Обновление визуализации в основном потоке
-     * <p>
-     * Особенности:
-     * - Использование CompletableFuture
-     * - Потокобезопасное обновление интерфейса
-     * - Кэширование количества товаров
-     */
-    private void updateProductStockHighlighting() {
-        CompletableFuture.supplyAsync(() -> {
-            Map<Long, Integer> stockQuantities = new HashMap<>();
-            for (ProductDTO product : masterProductList) {
-                stockQuantities.put(product.getId(), getTotalStockQuantity(product));
-            }
-            return stockQuantities;
-        }).thenAcceptAsync(stockQuantities -> {
-            Platform.runLater(() -> {
-                productsTable.refresh();
-            });
-        }, Platform::runLater);
     }
 
     /**
      * Получение общего количества товара на складах.
      * <p>
-     * Алгоритм работы:
-     * 1. Проверка кэша складских остатков
-     * 2. При отсутствии в кэше - запрос к серверу
-     * 3. Суммирование количества товара по складам
-     * 4. Кэширование результата
-     * <p>
-     * Особенности:
-     * - Использование HTTP-клиента
-     * - Кэширование результатов
-     * - Обработка сетевых ошибок
+     * Значение берется из индекса остатков общего хранилища,
+     * сетевых запросов при этом не выполняется.
      *
      * @param product Товар для проверки остатков
-     * @return Общее количество товара на складах
+     * @return Общее количество товара на складах; null, если остатки еще не получены
      */
-    private int getTotalStockQuantity(ProductDTO product) {
-        try {
-            if (stockQuantityCache.containsKey(product.getId())) {
-                return stockQuantityCache.get(product.getId());
-            }
-
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouse-stocks/product/" + product.getId()))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                List<WarehouseInStockDTO> warehouseStocks = objectMapper.readValue(
-                        response.body(),
-                        new TypeReference<List<WarehouseInStockDTO>>() {}
-                );
-
-                int totalQuantity = warehouseStocks.stream()
-                        .mapToInt(WarehouseInStockDTO::getCurrentQuantity)
-                        .sum();
-
-                stockQuantityCache.put(product.getId(), totalQuantity);
-                return totalQuantity;
-            }
-        } catch (Exception e) {
-            alertService.showErrorAlert(
-                    "Ошибка",
-                    "Не удалось получить информацию о складских остатках для товара " + product.getName()
-            );
-        }
-        return 0;
+    private Integer getTotalStockQuantity(ProductDTO product) {
+        StockTotals totals = stockStore.totalsFor(product.getId());
+        return totals == null ? null : totals.total();
     }
 
     /**
@@ -581,7 +558,7 @@ public class ProductsController {
      * 1. Формирование HTTP DELETE-запроса
      * 2. Отправка запроса на удаление
      * 3. Обработка ответа сервера
-     * 4. Обновление локального списка товаров
+     * 4. Удаление товара из общего хранилища
      * <p>
      * Сценарии обработки:
      * - Успешное удаление
@@ -592,17 +569,10 @@ public class ProductsController {
      */
     private void deleteProductFromServer(Long productId) {
         try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/products/" + productId))
-                    .DELETE()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.delete("/api/products/" + productId);
 
             if (response.statusCode() == 200) {
-                masterProductList.removeIf(product -> product.getId().equals(productId));
-                updateStatistics();
+                productStore.remove(productId);
                 alertService.showSuccessAlert("Товар успешно удален");
             } else if (response.statusCode() == 400) {
                 String errorMessage = response.body();
@@ -618,100 +588,47 @@ public class ProductsController {
     /**
      * Обновление статистических показателей товаров.
      * <p>
-     * Расчетные метрики:
+     * Отображаемые метрики:
      * - Общее количество товаров
      * - Средняя цена закупки и продажи
      * - Количество категорий и производителей
      * - Средние уровни складских запасов
      * - Средняя торговая маржа
      * <p>
-     * Этапы обработки:
-     * 1. Агрегация данных с использованием Stream API
-     * 2. Расчет статистических показателей
-     * 3. Обновление меток интерфейса
-     * <p>
-     * Особенности:
-     * - Использование математических операций
-     * - Обработка пустых коллекций
-     * - Округление числовых значений
+     * Значения поддерживаются агрегатором {@link ProductStatistics}
+     * по событиям изменения списка, поэтому обновление меток
+     * не требует прохода по всем товарам.
      */
     private void updateStatistics() {
-        int totalProducts = masterProductList.size();
-
-        BigDecimal totalPurchasePrice = masterProductList.stream()
-                .map(ProductDTO::getPurchasePrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalSellingPrice = masterProductList.stream()
-                .map(ProductDTO::getSellingPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averagePurchasePrice = totalProducts > 0
-                ? totalPurchasePrice.divide(BigDecimal.valueOf(totalProducts), RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        BigDecimal averageSellingPrice = totalProducts > 0
-                ? totalSellingPrice.divide(BigDecimal.valueOf(totalProducts), RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        long categoryCount = masterProductList.stream()
-                .map(ProductDTO::getCategory)
-                .distinct()
-                .count();
-
-        long manufacturerCount = masterProductList.stream()
-                .map(ProductDTO::getManufacturer)
-                .distinct()
-                .count();
-
-        double averageMinStockLevel = masterProductList.stream()
-                .mapToInt(ProductDTO::getMinStockLevel)
-                .average()
-                .orElse(0.0);
-
-        double averageMaxStockLevel = masterProductList.stream()
-                .mapToInt(ProductDTO::getMaxStockLevel)
-                .average()
-                .orElse(0.0);
-
-        BigDecimal averageMargin = masterProductList.stream()
-                .map(product -> {
-                    BigDecimal purchasePrice = product.getPurchasePrice();
-                    BigDecimal sellingPrice = product.getSellingPrice();
-                    return sellingPrice.subtract(purchasePrice);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(totalProducts), RoundingMode.HALF_UP);
-
-        totalProductsLabel.setText(String.format("Всего товаров: %d", totalProducts));
+        totalProductsLabel.setText(String.format("Всего товаров: %d", productStatistics.getCount()));
 
         averagePriceLabel.setText(String.format(
                 "Средняя цена закупки: %.2f",
-                averagePurchasePrice
+                productStatistics.getAveragePurchasePrice()
         ));
         sellingPriceLabel.setText(String.format(
                 "Средняя цена продажи: %.2f",
-                averageSellingPrice
+                productStatistics.getAverageSellingPrice()
         ));
         categoriesLabel.setText(String.format(
                 "Всего категорий: %d",
-                categoryCount
+                productStatistics.getCategoryCount()
         ));
         manufacturersLabel.setText(String.format(
                 "Всего производителей: %d",
-                manufacturerCount
+                productStatistics.getManufacturerCount()
         ));
         minStockLabel.setText(String.format(
                 "Средний мин. уровень запасов: %.1f",
-                averageMinStockLevel
+                productStatistics.getAverageMinStockLevel()
         ));
         maxStockLabel.setText(String.format(
                 "Средний макс. уровень запасов: %.1f",
-                averageMaxStockLevel
+                productStatistics.getAverageMaxStockLevel()
         ));
         marginLabel.setText(String.format(
                 "Средняя маржа: %.2f",
-                averageMargin
+                productStatistics.getAverageMargin()
         ));
     }
 
@@ -796,19 +713,22 @@ public class ProductsController {
         TextField valueTextField = new TextField();
         valueTextField.setPromptText("Введите значение");
 
-        ListView<String> activeFiltersListView = new ListView<>();
-        ObservableList<String> activeFiltersList = FXCollections.observableArrayList();
+        ListView<CompiledFilter<ProductDTO>> activeFiltersListView = new ListView<>();
+        ObservableList<CompiledFilter<ProductDTO>> activeFiltersList = FXCollections.observableArrayList();
         activeFiltersListView.setItems(activeFiltersList);
 
         Button addFilterButton = new Button("Добавить фильтр");
         addFilterButton.setOnAction(e -> {
             if (validateFilterInput(fieldComboBox, operatorComboBox, valueTextField)) {
-                String filterCondition = createFilterCondition(
+                CompiledFilter<ProductDTO> filter = compileFilter(
                         fieldComboBox.getValue(),
                         operatorComboBox.getValue(),
                         valueTextField.getText()
                 );
-                activeFiltersList.add(filterCondition);
+                if (filter == null) {
+                    return;
+                }
+                activeFiltersList.add(filter);
 
                 fieldComboBox.setValue(null);
                 operatorComboBox.setValue(null);
@@ -898,293 +818,188 @@ public class ProductsController {
     }
 
     /**
-     * Создание текстового представления условия фильтра.
+     * Компиляция условия фильтра.
      * <p>
-     * Формирование читаемой строки фильтра:
-     * - Поле фильтрации
-     * - Условие сравнения
-     * - Значение
+     * Значение фильтра приводится к типу поля один раз,
+     * при ошибке формата пользователь получает сообщение.
      *
      * @param field Поле фильтрации
      * @param operator Условие сравнения
      * @param value Значение фильтра
-     * @return Форматированная строка условия
+     * @return Скомпилированное условие или null при ошибке формата
      */
-    private String createFilterCondition(String field, String operator, String value) {
-        return String.format("%s %s \"%s\"", field, operator, value);
+    private CompiledFilter<ProductDTO> compileFilter(String field, String operator, String value) {
+        try {
+            return FILTER_COMPILER.compile(field, operator, value);
+        } catch (NumberFormatException e) {
+            alertService.showErrorAlert("Ошибка", "Неверный формат числа: " + value);
+        } catch (IllegalArgumentException e) {
+            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + e.getMessage());
+        }
+        return null;
     }
 
     /**
      * Применение фильтров к списку товаров.
      * <p>
-     * Алгоритм фильтрации:
-     * 1. Проверка каждого товара по всем активным фильтрам
-     * 2. Товар проходит фильтрацию, если соответствует всем условиям
+     * Скомпилированные условия объединяются в один предикат:
+     * запись проходит фильтрацию, если соответствует всем условиям.
+     * Разбор условий выполнен заранее, при их добавлении.
      *
      * @param activeFiltersList Список активных фильтров
      */
-    private void applyFilters(ObservableList<String> activeFiltersList) {
-        filteredProductList.setPredicate(product -> {
-            if (activeFiltersList.isEmpty()) {
-                return true;
-            }
-
-            for (String filterCondition : activeFiltersList) {
-                if (!matchesFilter(product, filterCondition)) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
+    private void applyFilters(List<CompiledFilter<ProductDTO>> activeFiltersList) {
+        filteredProductList.setPredicate(FilterCompiler.allOf(List.copyOf(activeFiltersList)));
     }
 
     /**
-     * Проверка соответствия товара условиям фильтра.
-     * <p>
-     * Типы сравнения:
-     * - Строковые поля (содержит, равно)
-     * - Числовые поля (больше, меньше, равно)
+     * Настройка столбцов таблицы товаров.
      * <p>
-     * Поддерживаемые поля:
-     * - Название
-     * - Артикул
-     * - Категория
-     * - Производитель
-     * - Цена закупки
-     * - Цена продажи
-     * - Минимальный/максимальный остаток
-     *
-     * @param product Проверяемый товар
-     * @param filterCondition Условие фильтрации
-     * @return Результат проверки
+     * Выполняемые действия:
+     * - Привязка свойств DTO к столбцам
+     * - Настройка сортировки
      */
-    private boolean matchesFilter(ProductDTO product, String filterCondition) {
-        String field, operator, value;
-        String[] parts = filterCondition.split(" ", 6);
-        if ((Objects.equals(parts[0], "Название")) || (Objects.equals(parts[0], "Артикул")) || (Objects.equals(parts[0], "Категория")) || (Objects.equals(parts[0], "Производитель"))){
-            field = parts[0];
-            if (Objects.equals(parts[2], "или")){
-                operator = parts[1] + " " + parts[2] + " " + parts[3];
-                value = parts[4].replaceAll("^\"|\"$", "");;
-            }
-            else {
-                operator = parts[1];
-                value = parts[2].replaceAll("^\"|\"$", "");;
-            }
-        }
-        else
-        {
-            field = parts[0] + " " + parts[1];
-            if (Objects.equals(parts[3], "или")){
-                operator = parts[2] + " " + parts[3] + " " + parts[4];
-                value = parts[5].replaceAll("^\"|\"$", "");;
-            }
-            else {
-                operator = parts[2];
-                value = parts[3].replaceAll("^\"|\"$", "");;
-            }
-        }
+    private void setupTableColumns() {
+        idColumn.setCellValueFactory(CellValues.of(ProductDTO::idProperty));
+        articleNumberColumn.setCellValueFactory(CellValues.of(ProductDTO::articleNumberProperty));
+        nameColumn.setCellValueFactory(CellValues.of(ProductDTO::nameProperty));
+        descriptionColumn.setCellValueFactory(CellValues.of(ProductDTO::descriptionProperty));
+        categoryColumn.setCellValueFactory(CellValues.of(ProductDTO::categoryProperty));
+        manufacturerColumn.setCellValueFactory(CellValues.of(ProductDTO::manufacturerProperty));
+        purchasePriceColumn.setCellValueFactory(CellValues.of(ProductDTO::purchasePriceProperty));
+        sellingPriceColumn.setCellValueFactory(CellValues.of(ProductDTO::sellingPriceProperty));
+        minStockLevelColumn.setCellValueFactory(CellValues.of(ProductDTO::minStockLevelProperty));
+        maxStockLevelColumn.setCellValueFactory(CellValues.of(ProductDTO::maxStockLevelProperty));
 
-        try {
-            switch (field) {
-                case "Название":
-                    return compareString(product.getName(), operator, value);
-                case "Артикул":
-                    return compareString(product.getArticleNumber(), operator, value);
-                case "Категория":
-                    return compareString(product.getCategory(), operator, value);
-                case "Производитель":
-                    return compareString(product.getManufacturer(), operator, value);
-                case "Цена закупки":
-                    return compareDecimal(product.getPurchasePrice(), operator, new BigDecimal(value));
-                case "Цена продажи":
-                    return compareDecimal(product.getSellingPrice(), operator, new BigDecimal(value));
-                case "Минимальный остаток":
-                    return compareInteger(product.getMinStockLevel(), operator, Integer.parseInt(value));
-                case "Максимальный остаток":
-                    return compareInteger(product.getMaxStockLevel(), operator, Integer.parseInt(value));
-            }
-        } catch (NumberFormatException e) {
-            alertService.showErrorAlert("Ошибка", "Неверный формат числа: " + value);
-        } catch (Exception e) {
-            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + filterCondition);
-        }
+        idColumn.setSortable(true);
+        articleNumberColumn.setSortable(true);
+        nameColumn.setSortable(true);
+        descriptionColumn.setSortable(true);
+        categoryColumn.setSortable(true);
+        manufacturerColumn.setSortable(true);
+        purchasePriceColumn.setSortable(true);
+        sellingPriceColumn.setSortable(true);
+        minStockLevelColumn.setSortable(true);
+        maxStockLevelColumn.setSortable(true);
+    }
 
-        return false;
+    /**
+     * Повторное отображение страницы из кэша представлений.
+     * <p>
+     * Данные, фильтры и положение прокрутки сохраняются с прошлого посещения.
+     * Изменения, сделанные на других страницах, уже применены к общим
+     * хранилищам, а изменения товаров и остатков на сервере запрашиваются
+     * обновлением хранилищ, которое затрагивает только изменившиеся строки.
+     * Если загрузка хранилища завершилась ошибкой, она запускается повторно.
+     */
+    @Override
+    public void onViewShown() {
+        productStore.refresh(this::showLoadError);
+        stockStore.refresh(this::showStockLoadError);
+        applyStoreState(productStore.getState());
     }
 
     /**
-     * Сравнение строковых значений.
+     * Загрузка товаров и складских остатков для подсветки строк.
      * <p>
-     * Поддерживаемые операторы:
-     * - Содержит
-     * - Равно
-     *
-     * @param productValue Значение товара
-     * @param operator Условие сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
+     * Данные загружаются общими хранилищами однократно для всех
+     * представлений: уже загруженные списки повторно не запрашиваются,
+     * а незавершенная загрузка, запущенная другой страницей,
+     * используется как есть.
      */
-    private boolean compareString(String productValue, String operator, String filterValue) {
-        productValue = productValue.toLowerCase();
-        filterValue = filterValue.toLowerCase();
-
-        switch (operator) {
-            case "Содержит":
-                return productValue.contains(filterValue);
-            case "Равно":
-                return productValue.equals(filterValue);
-            default:
-                return false;
-        }
+    private void loadProducts() {
+        productStore.ensureLoaded(this::showLoadError);
+        stockStore.ensureLoaded(this::showStockLoadError);
+        applyStoreState(productStore.getState());
     }
 
     /**
-     * Сравнение десятичных значений (цен).
+     * Отображение состояния хранилища товаров.
      * <p>
-     * Поддерживаемые операторы:
-     * - Больше
-     * - Меньше
-     * - Больше или равно
-     * - Меньше или равно
-     * - Равно
+     * Вызывается при каждом изменении состояния, в том числе
+     * когда загрузку запустило другое представление:
+     * - Во время загрузки таблица заполняется по мере получения записей
+     * - В постраничном режиме таблица отображает виртуальный список
      *
-     * @param productValue Значение товара
-     * @param operator Условие сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
+     * @param state Состояние хранилища
      */
-    private boolean compareDecimal(BigDecimal productValue, String operator, BigDecimal filterValue) {
-        switch (operator) {
-            case "Больше":
-                return productValue.compareTo(filterValue) > 0;
-            case "Меньше":
-                return productValue.compareTo(filterValue) < 0;
-            case "Больше или равно":
-                return productValue.compareTo(filterValue) >= 0;
-            case "Меньше или равно":
-                return productValue.compareTo(filterValue) <= 0;
-            case "Равно":
-                return productValue.compareTo(filterValue) == 0;
-            default:
-                return false;
+    private void applyStoreState(EntityStore.State state) {
+        if (state == EntityStore.State.LOADING) {
+            applyLoadMode(null);
+            productsTable.setPlaceholder(new Label("Загрузка товаров..."));
+            showLoadingProgress(productStore.receivedProperty().get());
+            return;
         }
+
+        finishLoading();
+        applyLoadMode(productStore.getPagedList());
     }
 
     /**
-     * Сравнение целочисленных значений (остатков).
-     * <p>
-     * Поддерживаемые операторы:
-     * - Больше
-     * - Меньше
-     * - Больше или равно
-     * - Меньше или равно
-     * - Равно
+     * Отображение ошибки загрузки списка товаров.
      *
-     * @param productValue Значение товара
-     * @param operator Условие сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
+     * @param throwable Ошибка загрузки
      */
-    private boolean compareInteger(int productValue, String operator, int filterValue) {
-        switch (operator) {
-            case "Больше":
-                return productValue > filterValue;
-            case "Меньше":
-                return productValue < filterValue;
-            case "Больше или равно":
-                return productValue >= filterValue;
-            case "Меньше или равно":
-                return productValue <= filterValue;
-            case "Равно":
-                return productValue == filterValue;
-            default:
-                return false;
+    private void showLoadError(Throwable throwable) {
+        if (throwable instanceof ApiResponseException) {
+            alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список товаров");
+        } else {
+            alertService.showErrorAlert("Ошибка сети", "Не удалось подключиться к серверу");
         }
     }
 
     /**
-     * Настройка столбцов таблицы товаров.
-     * <p>
-     * Выполняемые действия:
-     * - Привязка свойств DTO к столбцам
-     * - Настройка сортировки
-     * - Определение логики сравнения
+     * Отображение ошибки получения складских остатков для подсветки строк.
+     *
+     * @param throwable Ошибка загрузки
      */
-    private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        articleNumberColumn.setCellValueFactory(new PropertyValueFactory<>("articleNumber"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
-        categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
-        manufacturerColumn.setCellValueFactory(new PropertyValueFactory<>("manufacturer"));
-        purchasePriceColumn.setCellValueFactory(new PropertyValueFactory<>("purchasePrice"));
-        sellingPriceColumn.setCellValueFactory(new PropertyValueFactory<>("sellingPrice"));
-        minStockLevelColumn.setCellValueFactory(new PropertyValueFactory<>("minStockLevel"));
-        maxStockLevelColumn.setCellValueFactory(new PropertyValueFactory<>("maxStockLevel"));
-
-        nameColumn.setComparator((name1, name2) -> {
-            if (name1 == null) return -1;
-            if (name2 == null) return 1;
-            return name1.compareToIgnoreCase(name2);
-        });
+    private void showStockLoadError(Throwable throwable) {
+        alertService.showErrorAlert("Ошибка", "Не удалось получить информацию о складских остатках");
+    }
 
-        articleNumberColumn.setComparator((article1, article2) -> {
-            if (article1 == null) return -1;
-            if (article2 == null) return 1;
-            return article1.compareToIgnoreCase(article2);
-        });
+    /**
+     * Отображение числа полученных записей во время загрузки.
+     *
+     * @param received Количество полученных записей
+     */
+    private void showLoadingProgress(long received) {
+        loadingProgressLabel.setText(String.format("Получено записей: %d", received));
+        loadingProgressLabel.setVisible(true);
+        loadingProgressLabel.setManaged(true);
+    }
 
-        idColumn.setSortable(true);
-        articleNumberColumn.setSortable(true);
-        nameColumn.setSortable(true);
-        descriptionColumn.setSortable(true);
-        categoryColumn.setSortable(true);
-        manufacturerColumn.setSortable(true);
-        purchasePriceColumn.setSortable(true);
-        sellingPriceColumn.setSortable(true);
-        minStockLevelColumn.setSortable(true);
-        maxStockLevelColumn.setSortable(true);
+    /**
+     * Скрытие индикатора загрузки.
+     */
+    private void finishLoading() {
+        productsTable.setPlaceholder(null);
+        loadingProgressLabel.setVisible(false);
+        loadingProgressLabel.setManaged(false);
     }
 
     /**
-     * Загрузка списка товаров с сервера.
+     * Переключение таблицы между полной и постраничной загрузкой.
      * <p>
-     * Последовательность действий:
-     * 1. Формирование HTTP-запроса
-     * 2. Отправка GET-запроса
-     * 3. Десериализация ответа
-     * 4. Обновление локального списка
-     * 5. Обновление статистики
-     * <p>
-     * Обработка ошибок:
-     * - Сетевые ошибки
-     * - Ошибки десериализации
-     * - Ошибки ответа сервера
+     * В постраничном режиме таблица отображает виртуальный список,
+     * а фильтрация и сортировка на стороне клиента недоступны,
+     * так как требуют всех записей.
+     *
+     * @param pagedList Виртуальный список или null при полной загрузке
      */
-    private void loadProductsFromServer() {
-        try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/products"))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                List<ProductDTO> products = objectMapper.readValue(response.body(), new TypeReference<List<ProductDTO>>() {});
-
-                masterProductList.clear();
-                masterProductList.addAll(products);
-                updateStatistics();
-            } else {
-                alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список товаров");
-            }
-        } catch (Exception e) {
-            alertService.showErrorAlert("Ошибка сети", "Не удалось подключиться к серверу");
+    private void applyLoadMode(PagedList<ProductDTO> pagedList) {
+        boolean paged = pagedList != null;
+
+        productsTable.setItems(paged ? pagedList : sortedProductList);
+        productsTable.getColumns().forEach(column -> column.setSortable(!paged));
+        filterTextField.setDisable(paged);
+        advancedFilterButton.setDisable(paged);
+
+        if (paged) {
+            pagedList.setOnLoadFailed(_ ->
+                    alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить страницу списка товаров"));
+            loadingProgressLabel.setText(String.format("Постраничный режим: %d записей", pagedList.size()));
+            loadingProgressLabel.setVisible(true);
+            loadingProgressLabel.setManaged(true);
         }
     }
 }
@@ -0,0 +1,86 @@
+package com.api.cargosimpleclient.Controllers;
+
+import javafx.beans.binding.Bindings;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Сортировка таблиц по значениям записей.
+ * <p>
+ * Стандартная сортировка {@link TableView} сравнивает значения ячеек
+ * через {@link TableColumn#getCellData(Object)}, что создает ленивые
+ * JavaFX Properties DTO для всех строк списка, а не только для видимых.
+ * Здесь каждому столбцу сопоставляется компаратор записей на обычных
+ * геттерах, а список сортируется через {@link SortedList}, поэтому
+ * политика сортировки таблицы только подтверждает новый порядок.
+ */
+public final class TableSorting {
+
+    private TableSorting() {
+    }
+
+    /**
+     * Привязка порядка отсортированного списка к сортировке таблицы.
+     *
+     * @param table Таблица
+     * @param sortedList Список строк таблицы
+     * @param comparators Компараторы записей по столбцам в порядке возрастания;
+     *                    столбцы без компаратора при сортировке не учитываются
+     * @param <S> Тип записи
+     */
+    public static <S> void bind(TableView<S> table, SortedList<S> sortedList,
+                                Map<TableColumn<S, ?>, Comparator<S>> comparators) {
+        sortedList.comparatorProperty().bind(Bindings.createObjectBinding(
+                () -> rowComparator(table, comparators), table.comparatorProperty()));
+        table.setSortPolicy(_ -> true);
+    }
+
+    /**
+     * Компаратор значений по естественному порядку, null считается
+     * меньше любого значения, как в стандартной сортировке столбцов.
+     *
+     * @param getter Геттер записи
+     * @param <S> Тип записи
+     * @param <U> Тип значения
+     * @return Компаратор записей
+     */
+    public static <S, U extends Comparable<? super U>> Comparator<S> by(Function<S, U> getter) {
+        return Comparator.comparing(getter, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Компаратор строковых значений без учета регистра, null считается
+     * меньше любой строки.
+     *
+     * @param getter Геттер записи
+     * @param <S> Тип записи
+     * @return Компаратор записей
+     */
+    public static <S> Comparator<S> byIgnoreCase(Function<S, String> getter) {
+        return Comparator.comparing(getter, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private static <S> Comparator<S> rowComparator(TableView<S> table, Map<TableColumn<S, ?>, Comparator<S>> comparators) {
+        if (table.getComparator() == null) {
+            return null;
+        }
+
+        Comparator<S> comparator = null;
+        for (TableColumn<S, ?> column : table.getSortOrder()) {
+            Comparator<S> columnComparator = comparators.get(column);
+            if (columnComparator == null) {
+                continue;
+            }
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) {
+                columnComparator = columnComparator.reversed();
+            }
+            comparator = comparator == null ? columnComparator : comparator.thenComparing(columnComparator);
+        }
+        return comparator;
+    }
+}
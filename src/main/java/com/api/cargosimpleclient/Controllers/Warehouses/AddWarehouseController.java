@@ -3,18 +3,14 @@ package com.api.cargosimpleclient.Controllers.Warehouses;
 import com.api.cargosimpleclient.DTO.WarehouseDTO;
 import com.api.cargosimpleclient.DTO.WarehouseStatus;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.fxml.FXML;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Map;
 
 /**
  * Контроллер для добавления новых складов в систему.
@@ -52,6 +48,10 @@ public class AddWarehouseController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private WarehouseAddedListener warehouseAddedListener;
 
     /**
@@ -69,25 +69,12 @@ public class AddWarehouseController {
         try {
             collectWarehouseData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-            Map<String, Object> warehouseMap = objectMapper.convertValue(warehouseDTO, Map.class);
-            warehouseMap.remove("id");
-
-            String jsonWarehouse = objectMapper.writeValueAsString(warehouseMap);
-
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouses"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonWarehouse))
-                    .build();
+            String jsonWarehouse = codecService.writeWithoutId(warehouseDTO);
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.post("/api/warehouses", jsonWarehouse);
 
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                WarehouseDTO savedWarehouse = objectMapper.readValue(response.body(), WarehouseDTO.class);
+                WarehouseDTO savedWarehouse = codecService.read(response.body(), WarehouseDTO.class);
 
                 if (warehouseAddedListener != null) {
                     warehouseAddedListener.onWarehouseAdded(savedWarehouse);
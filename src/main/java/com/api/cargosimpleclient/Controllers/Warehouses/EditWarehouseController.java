@@ -3,16 +3,14 @@ package com.api.cargosimpleclient.Controllers.Warehouses;
 import com.api.cargosimpleclient.DTO.WarehouseDTO;
 import com.api.cargosimpleclient.DTO.WarehouseStatus;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
 /**
@@ -51,6 +49,10 @@ public class EditWarehouseController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private WarehouseUpdatedListener warehouseUpdatedListener;
 
     /**
@@ -66,22 +68,14 @@ public class EditWarehouseController {
     @FXML
     private void handleUpdateWarehouse() {
         try {
-            validateAndUpdateWarehouseData();
+            WarehouseDTO editedWarehouse = validateAndUpdateWarehouseData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonWarehouse = objectMapper.writeValueAsString(warehouseDTO);
+            String jsonWarehouse = codecService.write(editedWarehouse);
 
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouses/" + warehouseDTO.getId()))
-                    .header("Content-Type", "application/json")
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonWarehouse))
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.put("/api/warehouses/" + warehouseDTO.getId(), jsonWarehouse);
 
             if (response.statusCode() == 200) {
-                WarehouseDTO updatedWarehouse = objectMapper.readValue(response.body(), WarehouseDTO.class);
+                WarehouseDTO updatedWarehouse = codecService.read(response.body(), WarehouseDTO.class);
 
                 if (warehouseUpdatedListener != null) {
                     Platform.runLater(() ->
@@ -164,11 +158,14 @@ public class EditWarehouseController {
      * - Проверку и очистку значений полей ввода
      * - Парсинг числовых значений
      * - Проверку выбора статуса
-     * - Обновление объекта DTO новыми значениями
+     * - Формирование нового объекта DTO с идентификатором редактируемого склада
+     * <p>
+     * Строка таблицы не изменяется до получения ответа сервера.
      *
+     * @return Обновленные данные склада
      * @throws IllegalArgumentException при нарушении условий валидации
      */
-    private void validateAndUpdateWarehouseData() {
+    private WarehouseDTO validateAndUpdateWarehouseData() {
         String name = validateAndTrimField(nameField, "Название");
         String address = validateAndTrimField(addressField, "Адрес");
         String contactPerson = validateAndTrimField(contactPersonField, "Контактное лицо");
@@ -181,13 +178,16 @@ public class EditWarehouseController {
             throw new IllegalArgumentException("Статус склада должен быть выбран");
         }
 
-        warehouseDTO.setName(name);
-        warehouseDTO.setAddress(address);
-        warehouseDTO.setContactPerson(contactPerson);
-        warehouseDTO.setPhone(phone);
-        warehouseDTO.setEmail(email);
-        warehouseDTO.setCapacity(capacity);
-        warehouseDTO.setStatus(statusComboBox.getValue());
+        WarehouseDTO editedWarehouse = new WarehouseDTO();
+        editedWarehouse.setId(warehouseDTO.getId());
+        editedWarehouse.setName(name);
+        editedWarehouse.setAddress(address);
+        editedWarehouse.setContactPerson(contactPerson);
+        editedWarehouse.setPhone(phone);
+        editedWarehouse.setEmail(email);
+        editedWarehouse.setCapacity(capacity);
+        editedWarehouse.setStatus(statusComboBox.getValue());
+        return editedWarehouse;
     }
 
     /**
@@ -1,12 +1,24 @@
 package com.api.cargosimpleclient.Controllers.Warehouses;
 
+import com.api.cargosimpleclient.Controllers.CellValues;
+import com.api.cargosimpleclient.Controllers.DataAsOfLabels;
+import com.api.cargosimpleclient.Controllers.TableSorting;
 import com.api.cargosimpleclient.DTO.WarehouseDTO;
 import com.api.cargosimpleclient.DTO.WarehouseStatus;
+import com.api.cargosimpleclient.Filters.CompiledFilter;
+import com.api.cargosimpleclient.Filters.FilterCompiler;
+import com.api.cargosimpleclient.Paging.PagedList;
 import com.api.cargosimpleclient.Services.AlertService;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.ApiResponseException;
 import com.api.cargosimpleclient.Services.LoadViewService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ViewLifecycle;
+import com.api.cargosimpleclient.Statistics.WarehouseStatistics;
+import com.api.cargosimpleclient.Stores.EntityStore;
+import com.api.cargosimpleclient.Stores.WarehouseStore;
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -17,18 +29,15 @@ import javafx.geometry.Insets;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -41,7 +50,16 @@ import java.util.Objects;
  * - Отображение статистики складов
  * - Навигация между связанными представлениями
  */
-public class WarehousesController {
+public class WarehousesController implements ViewLifecycle {
+
+    private static final FilterCompiler<WarehouseDTO> FILTER_COMPILER = new FilterCompiler<WarehouseDTO>()
+            .stringField("Название", WarehouseDTO::getName)
+            .stringField("Адрес", WarehouseDTO::getAddress)
+            .stringField("Контактное лицо", WarehouseDTO::getContactPerson)
+            .stringField("Телефон", WarehouseDTO::getPhone)
+            .stringField("Email", WarehouseDTO::getEmail)
+            .intField("Вместимость", WarehouseDTO::getCapacity)
+            .enumField("Статус", WarehouseDTO::getStatus, WarehouseStatus.class);
 
     @FXML
     private TableView<WarehouseDTO> warehousesTable;
@@ -103,7 +121,11 @@ public class WarehousesController {
     @FXML
     private Label totalCapacityLabel;
 
-    private ObservableList<WarehouseDTO> masterWarehouseList;
+    @FXML
+    private Label loadingProgressLabel;
+
+    @FXML
+    private Label dataAsOfLabel;
 
     private FilteredList<WarehouseDTO> filteredWarehouseList;
 
@@ -111,13 +133,33 @@ public class WarehousesController {
 
     private final AlertService alertService = new AlertService();
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final WarehouseStore warehouseStore = WarehouseStore.getInstance();
+
+    private final WarehouseStatistics warehouseStatistics = warehouseStore.getStatistics();
+
+    private SortedList<WarehouseDTO> sortedWarehouseList;
+
+    /*
+     * Хранилище живет дольше представления, поэтому подписки на него
+     * выполняются через слабые слушатели, а сильные ссылки держит контроллер.
+     */
+    private final ChangeListener<EntityStore.State> storeStateListener = (_, _, state) -> applyStoreState(state);
+
+    private final ChangeListener<Number> loadingProgressListener = (_, _, received) -> {
+        if (warehouseStore.getState() == EntityStore.State.LOADING) {
+            showLoadingProgress(received.longValue());
+        }
+    };
+
     /**
      * Инициализация контроллера после загрузки FXML.
      * <p>
      * Выполняет настройку:
-     * - Списков данных
+     * - Списков данных поверх общего хранилища складов
      * - Столбцов таблицы
-     * - Загрузки данных с сервера
+     * - Загрузки данных, если они еще не загружены
      * - Обработчиков событий
      * - Кнопок управления
      * - Фильтрации
@@ -125,16 +167,29 @@ public class WarehousesController {
      */
     @FXML
     public void initialize() {
-        masterWarehouseList = FXCollections.observableArrayList();
-        filteredWarehouseList = new FilteredList<>(masterWarehouseList, p -> true);
+        filteredWarehouseList = new FilteredList<>(warehouseStore.items(), p -> true);
+        warehouseStatistics.setOnUpdated(this::updateStatistics);
+        updateStatistics();
 
-        SortedList<WarehouseDTO> sortedWarehouseList = new SortedList<>(filteredWarehouseList);
-        sortedWarehouseList.comparatorProperty().bind(warehousesTable.comparatorProperty());
+        sortedWarehouseList = new SortedList<>(filteredWarehouseList);
+        TableSorting.bind(warehousesTable, sortedWarehouseList, Map.of(
+                idColumn, TableSorting.by(WarehouseDTO::getId),
+                nameColumn, TableSorting.by(WarehouseDTO::getName),
+                addressColumn, TableSorting.by(WarehouseDTO::getAddress),
+                contactPersonColumn, TableSorting.by(WarehouseDTO::getContactPerson),
+                phoneColumn, TableSorting.by(WarehouseDTO::getPhone),
+                emailColumn, TableSorting.by(WarehouseDTO::getEmail),
+                capacityColumn, TableSorting.by(WarehouseDTO::getCapacity),
+                statusColumn, TableSorting.by(WarehouseDTO::getStatus)));
 
         warehousesTable.setItems(sortedWarehouseList);
 
         setupTableColumns();
-        loadWarehousesFromServer();
+
+        warehouseStore.stateProperty().addListener(new WeakChangeListener<>(storeStateListener));
+        warehouseStore.receivedProperty().addListener(new WeakChangeListener<>(loadingProgressListener));
+        DataAsOfLabels.bind(dataAsOfLabel, warehouseStore);
+        loadWarehouses();
 
         editWarehouseButton.setDisable(true);
 
@@ -170,8 +225,6 @@ public class WarehousesController {
         addWarehouseButton.setOnAction(event -> openAddWarehouseDialog());
         editWarehouseButton.setOnAction(event -> openEditWarehouseDialog());
         deleteWarehouseButton.setOnAction(event -> deleteWarehouse());
-
-        updateStatistics();
     }
 
     /**
@@ -192,11 +245,7 @@ public class WarehousesController {
             AddWarehouseController addController = loader.getController();
 
             addController.setOnWarehouseAddedListener(newWarehouse -> {
-                Platform.runLater(() -> {
-                    if (masterWarehouseList != null) {
-                        masterWarehouseList.add(newWarehouse);
-                    }
-                });
+                Platform.runLater(() -> warehouseStore.put(newWarehouse));
             });
 
             Stage dialogStage = new Stage();
@@ -206,7 +255,6 @@ public class WarehousesController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог добавления склада");
         }
@@ -240,14 +288,7 @@ public class WarehousesController {
             editController.setWarehouseToEdit(selectedWarehouse);
 
             editController.setOnWarehouseUpdatedListener(updatedWarehouse -> {
-                Platform.runLater(() -> {
-                    if (masterWarehouseList != null) {
-                        int index = masterWarehouseList.indexOf(selectedWarehouse);
-                        if (index != -1) {
-                            masterWarehouseList.set(index, updatedWarehouse);
-                        }
-                    }
-                });
+                Platform.runLater(() -> warehouseStore.put(updatedWarehouse));
             });
 
             Stage dialogStage = new Stage();
@@ -257,7 +298,6 @@ public class WarehousesController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог редактирования");
         }
@@ -300,23 +340,16 @@ public class WarehousesController {
      * - Формирование HTTP DELETE-запроса
      * - Отправка запроса на удаление склада
      * - Обработка различных сценариев ответа сервера
-     * - Обновление локального списка складов
+     * - Удаление склада из общего хранилища
      *
      * @param warehouseId Идентификатор склада для удаления
      */
     private void deleteWarehouseFromServer(Long warehouseId) {
         try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouses/" + warehouseId))
-                    .DELETE()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.delete("/api/warehouses/" + warehouseId);
 
             if (response.statusCode() == 200) {
-                masterWarehouseList.removeIf(product -> product.getId().equals(warehouseId));
-                updateStatistics();
+                warehouseStore.remove(warehouseId);
                 alertService.showSuccessAlert("Склад успешно удален");
             } else if (response.statusCode() == 400) {
                 String errorMessage = response.body();
@@ -363,7 +396,6 @@ public class WarehousesController {
     private void clearFilters() {
         filterTextField.clear();
         filteredWarehouseList.setPredicate(warehouse -> true);
-        updateStatistics();
     }
 
     /**
@@ -443,20 +475,23 @@ public class WarehousesController {
         statusComboBox.getItems().addAll(WarehouseStatus.values());
         statusComboBox.setPromptText("Выберите статус");
 
-        ListView<String> activeFiltersListView = new ListView<>();
-        ObservableList<String> activeFiltersList = FXCollections.observableArrayList();
+        ListView<CompiledFilter<WarehouseDTO>> activeFiltersListView = new ListView<>();
+        ObservableList<CompiledFilter<WarehouseDTO>> activeFiltersList = FXCollections.observableArrayList();
         activeFiltersListView.setItems(activeFiltersList);
 
         Button addFilterButton = new Button("Добавить фильтр");
         addFilterButton.setOnAction(e -> {
             if (validateFilterInput(fieldComboBox, operatorComboBox, valueTextField, statusComboBox)) {
-                String filterCondition = createFilterCondition(
+                CompiledFilter<WarehouseDTO> filter = compileFilter(
                         fieldComboBox.getValue(),
                         operatorComboBox.getValue(),
                         valueTextField.getText(),
                         statusComboBox.getValue()
                 );
-                activeFiltersList.add(filterCondition);
+                if (filter == null) {
+                    return;
+                }
+                activeFiltersList.add(filter);
                 fieldComboBox.setValue(null);
                 operatorComboBox.setValue(null);
                 valueTextField.clear();
@@ -564,215 +599,68 @@ public class WarehousesController {
     }
 
     /**
-     * Формирование текстового описания условия фильтрации.
+     * Компиляция условия фильтрации.
      * <p>
-     * Генерирует читаемое представление фильтра для отображения:
-     * - Для обычных полей: "Поле Условие Значение"
-     * - Для статуса: "Статус Условие Значение"
+     * Значение фильтра приводится к типу поля один раз:
+     * - Для обычных полей используется введенный текст
+     * - Для статуса используется выбранное значение перечисления
      *
      * @param field Выбранное поле фильтрации
      * @param operator Условие фильтрации
      * @param value Значение фильтра
      * @param status Статус склада (для специфических фильтров)
      *
-     * @return Строковое представление условия фильтрации
+     * @return Скомпилированное условие или null при ошибке формата
      */
-    private String createFilterCondition(
+    private CompiledFilter<WarehouseDTO> compileFilter(
             String field,
             String operator,
             String value,
             WarehouseStatus status
     ) {
-        if ("Статус".equals(field)) {
-            return String.format("Статус %s \"%s\"", operator, status);
-        }
-        return String.format("%s %s \"%s\"", field, operator, value);
-    }
-
-    /**
-     * Применение сформированных фильтров к списку складов.
-     * <p>
-     * Основные действия:
-     * - Установка предиката для фильтрованного списка
-     * - Проверка каждого склада на соответствие всем активным фильтрам
-     * - Динамическое обновление отображаемых складов
-     * <p>
-     * Алгоритм фильтрации:
-     * 1. Если фильтры отсутствуют - показать все склады
-     * 2. Проверить каждый склад на соответствие всем фильтрам
-     * 3. Исключить склады, не прошедшие хотя бы один фильтр
-     *
-     * @param activeFiltersList Список активных фильтров
-     */
-    private void applyFilters(ObservableList<String> activeFiltersList) {
-        filteredWarehouseList.setPredicate(warehouse -> {
-            if (activeFiltersList.isEmpty()) {
-                return true;
-            }
-
-            for (String filterCondition : activeFiltersList) {
-                if (!matchesFilter(warehouse, filterCondition)) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
-    }
-
-    /**
-     * Проверка соответствия склада конкретному фильтру.
-     * <p>
-     * Выполняет сопоставление значений склада с условиями фильтра:
-     * - Поддержка различных типов сравнения
-     * - Обработка числовых и текстовых полей
-     * - Специальная логика для статусов
-     *
-     * @param warehouse Проверяемый склад
-     * @param filterCondition Условие фильтрации
-     *
-     * @return true, если склад соответствует фильтру, иначе false
-     */
-    private boolean matchesFilter(WarehouseDTO warehouse, String filterCondition) {
-        String field, operator, value;
-        WarehouseStatus status = null;
-        String[] parts = filterCondition.split(" ", 6);
-        if (Objects.equals(parts[0], "Контактное")){
-            field = parts[0] + " " + parts[1];
-            if (Objects.equals(parts[3], "или")){
-                operator = parts[2] + " " + parts[3] + " " + parts[4];
-                value = parts[5].replaceAll("^\"|\"$", "");;
-            }
-            else {
-                operator = parts[2];
-                value = parts[3].replaceAll("^\"|\"$", "");;
-            }
-        }
-        else
-        {
-            field = parts[0];
-            if (Objects.equals(parts[2], "или")){
-                operator = parts[1] + " " + parts[2] + " " + parts[3];
-                value = parts[4].replaceAll("^\"|\"$", "");;
-            }
-            else {
-                operator = parts[1];
-                value = parts[2].replaceAll("^\"|\"$", "");;
-            }
-        }
-
-        if ((Objects.equals(value, "ACTIVE")) || (Objects.equals(value, "INACTIVE"))){
-            status = WarehouseStatus.valueOf(value);
-        }
-
         try {
-            switch (field) {
-                case "Название":
-                    return compareString(warehouse.getName(), operator, value);
-                case "Адрес":
-                    return compareString(warehouse.getAddress(), operator, value);
-                case "Контактное лицо":
-                    return compareString(warehouse.getContactPerson(), operator, value);
-                case "Телефон":
-                    return compareString(warehouse.getPhone(), operator, value);
-                case "Email":
-                    return compareString(warehouse.getEmail(), operator, value);
-                case "Вместимость":
-                    return compareInteger(warehouse.getCapacity(), operator, Integer.parseInt(value));
-                case "Статус":
-                    return warehouse.getStatus() == status;
+            if ("Статус".equals(field)) {
+                return FILTER_COMPILER.compile(field, operator, status.name());
             }
+            return FILTER_COMPILER.compile(field, operator, value);
         } catch (NumberFormatException e) {
             alertService.showErrorAlert("Ошибка", "Неверный формат числа: " + value);
-        } catch (Exception e) {
-            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + filterCondition);
+        } catch (IllegalArgumentException e) {
+            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + e.getMessage());
         }
-
-        return false;
+        return null;
     }
 
     /**
-     * Сравнение строковых значений с использованием различных операторов.
-     * <p>
-     * Поддерживаемые операции:
-     * - "Содержит": проверка вхождения подстроки
-     * - "Равно": точное совпадение строк
+     * Применение фильтров к списку складов.
      * <p>
-     * Особенности:
-     * - Нечувствительность к регистру
-     * - Безопасная обработка null-значений
+     * Скомпилированные условия объединяются в один предикат:
+     * запись проходит фильтрацию, если соответствует всем условиям.
+     * Разбор условий выполнен заранее, при их добавлении.
      *
-     * @param warehouseValue Значение из объекта склада
-     * @param operator Оператор сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
-     */
-    private boolean compareString(String warehouseValue, String operator, String filterValue) {
-        warehouseValue = warehouseValue.toLowerCase();
-        filterValue = filterValue.toLowerCase();
-
-        return switch (operator) {
-            case "Содержит" -> warehouseValue.contains(filterValue);
-            case "Равно" -> warehouseValue.equals(filterValue);
-            default -> false;
-        };
-    }
-
-    /**
-     * Сравнение числовых значений с использованием различных операторов.
-     * <p>
-     * Поддерживаемые операции:
-     * - "Больше": строгое превышение
-     * - "Меньше": строгое занижение
-     * - "Больше или равно": превышение или равенство
-     * - "Меньше или равно": занижение или равенство
-     * - "Равно": точное совпадение
-     *
-     * @param warehouseValue Числовое значение из объекта склада
-     * @param operator Оператор сравнения
-     * @param filterValue Значение фильтра для сравнения
-     * @return Результат сравнения
+     * @param activeFiltersList Список активных фильтров
      */
-    private boolean compareInteger(int warehouseValue, String operator, int filterValue) {
-        return switch (operator) {
-            case "Больше" -> warehouseValue > filterValue;
-            case "Меньше" -> warehouseValue < filterValue;
-            case "Больше или равно" -> warehouseValue >= filterValue;
-            case "Меньше или равно" -> warehouseValue <= filterValue;
-            case "Равно" -> warehouseValue == filterValue;
-            default -> false;
-        };
+    private void applyFilters(List<CompiledFilter<WarehouseDTO>> activeFiltersList) {
+        filteredWarehouseList.setPredicate(FilterCompiler.allOf(List.copyOf(activeFiltersList)));
     }
 
     /**
      * Обновление статистических показателей складов.
      * <p>
-     * Расчет и отображение статистики:
+     * Отображение статистики:
      * - Общее количество складов
      * - Количество активных складов
      * - Количество неактивных складов
      * - Суммарная вместимость складов
      * <p>
-     * Алгоритм:
-     * 1. Подсчет общего количества складов
-     * 2. Фильтрация активных складов
-     * 3. Расчет суммарной вместимости
-     * 4. Обновление меток интерфейса
+     * Значения поддерживаются агрегатором {@link WarehouseStatistics}
+     * по событиям изменения списка складов.
      */
     private void updateStatistics() {
-        int totalWarehouses = masterWarehouseList.size();
-        long activeWarehouses = masterWarehouseList.stream()
-                .filter(w -> w.getStatus() == WarehouseStatus.ACTIVE)
-                .count();
-        long inactiveWarehouses = totalWarehouses - activeWarehouses;
-        int totalCapacity = masterWarehouseList.stream()
-                .mapToInt(WarehouseDTO::getCapacity)
-                .sum();
-
-        totalWarehousesLabel.setText(String.format("Всего складов: %d", totalWarehouses));
-        activeWarehousesLabel.setText(String.format("Всего активных складов: %d", activeWarehouses));
-        inactiveWarehousesLabel.setText(String.format("Всего неактивных складов: %d", inactiveWarehouses));
-        totalCapacityLabel.setText(String.format("Общая вместимость: %d", totalCapacity));
+        totalWarehousesLabel.setText(String.format("Всего складов: %d", warehouseStatistics.getCount()));
+        activeWarehousesLabel.setText(String.format("Всего активных складов: %d", warehouseStatistics.getActiveCount()));
+        inactiveWarehousesLabel.setText(String.format("Всего неактивных складов: %d", warehouseStatistics.getInactiveCount()));
+        totalCapacityLabel.setText(String.format("Общая вместимость: %d", warehouseStatistics.getTotalCapacity()));
     }
 
     /**
@@ -819,14 +707,14 @@ public class WarehousesController {
      * - Статус
      */
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        addressColumn.setCellValueFactory(new PropertyValueFactory<>("address"));
-        contactPersonColumn.setCellValueFactory(new PropertyValueFactory<>("contactPerson"));
-        phoneColumn.setCellValueFactory(new PropertyValueFactory<>("phone"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-        capacityColumn.setCellValueFactory(new PropertyValueFactory<>("capacity"));
-        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        idColumn.setCellValueFactory(CellValues.of(WarehouseDTO::idProperty));
+        nameColumn.setCellValueFactory(CellValues.of(WarehouseDTO::nameProperty));
+        addressColumn.setCellValueFactory(CellValues.of(WarehouseDTO::addressProperty));
+        contactPersonColumn.setCellValueFactory(CellValues.of(WarehouseDTO::contactPersonProperty));
+        phoneColumn.setCellValueFactory(CellValues.of(WarehouseDTO::phoneProperty));
+        emailColumn.setCellValueFactory(CellValues.of(WarehouseDTO::emailProperty));
+        capacityColumn.setCellValueFactory(CellValues.of(WarehouseDTO::capacityProperty));
+        statusColumn.setCellValueFactory(CellValues.of(WarehouseDTO::statusProperty));
 
         idColumn.setSortable(true);
         nameColumn.setSortable(true);
@@ -839,41 +727,108 @@ public class WarehousesController {
     }
 
     /**
-     * Загрузка списка складов с удаленного сервера.
+     * Повторное отображение страницы из кэша представлений.
      * <p>
-     * Процесс загрузки:
-     * 1. Формирование HTTP GET-запроса
-     * 2. Отправка запроса на сервер
-     * 3. Десериализация полученного JSON
-     * 4. Обновление локального списка складов
+     * Данные, фильтры и положение прокрутки сохраняются с прошлого посещения.
+     * Изменения, сделанные на других страницах, уже применены к общему
+     * хранилищу, а изменения на сервере запрашиваются обновлением
+     * хранилища, которое затрагивает только изменившиеся строки.
+     * Если загрузка хранилища завершилась ошибкой, она запускается повторно.
+     */
+    @Override
+    public void onViewShown() {
+        warehouseStore.refresh(this::showLoadError);
+        applyStoreState(warehouseStore.getState());
+    }
+
+    /**
+     * Загрузка складов, если они еще не загружены.
      * <p>
-     * Обработка сценариев:
-     * - Успешная загрузка
-     * - Ошибка подключения
-     * - Ошибка получения данных
+     * Список загружается общим хранилищем однократно для всех
+     * представлений; незавершенная загрузка, запущенная другой
+     * страницей, используется как есть.
      */
-    private void loadWarehousesFromServer() {
-        try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouses"))
-                    .GET()
-                    .build();
+    private void loadWarehouses() {
+        warehouseStore.ensureLoaded(this::showLoadError);
+        applyStoreState(warehouseStore.getState());
+    }
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Отображение состояния хранилища складов.
+     * <p>
+     * Вызывается при каждом изменении состояния, в том числе
+     * когда загрузку запустило другое представление.
+     *
+     * @param state Состояние хранилища
+     */
+    private void applyStoreState(EntityStore.State state) {
+        if (state == EntityStore.State.LOADING) {
+            applyLoadMode(null);
+            warehousesTable.setPlaceholder(new Label("Загрузка складов..."));
+            showLoadingProgress(warehouseStore.receivedProperty().get());
+            return;
+        }
 
-            if (response.statusCode() == 200) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                List<WarehouseDTO> warehouses = objectMapper.readValue(response.body(), new TypeReference<List<WarehouseDTO>>() {});
+        finishLoading();
+        applyLoadMode(warehouseStore.getPagedList());
+    }
 
-                masterWarehouseList.clear();
-                masterWarehouseList.addAll(warehouses);
-                updateStatistics();
-            } else {
-                alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список складов");
-            }
-        } catch (Exception e) {
+    /**
+     * Отображение ошибки загрузки списка складов.
+     *
+     * @param throwable Ошибка загрузки
+     */
+    private void showLoadError(Throwable throwable) {
+        if (throwable instanceof ApiResponseException) {
+            alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список складов");
+        } else {
             alertService.showErrorAlert("Ошибка сети", "Не удалось подключиться к серверу");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Отображение числа полученных записей во время загрузки.
+     *
+     * @param received Количество полученных записей
+     */
+    private void showLoadingProgress(long received) {
+        loadingProgressLabel.setText(String.format("Получено записей: %d", received));
+        loadingProgressLabel.setVisible(true);
+        loadingProgressLabel.setManaged(true);
+    }
+
+    /**
+     * Скрытие индикатора загрузки.
+     */
+    private void finishLoading() {
+        warehousesTable.setPlaceholder(null);
+        loadingProgressLabel.setVisible(false);
+        loadingProgressLabel.setManaged(false);
+    }
+
+    /**
+     * Переключение таблицы между полной и постраничной загрузкой.
+     * <p>
+     * В постраничном режиме таблица отображает виртуальный список,
+     * а фильтрация и сортировка на стороне клиента недоступны,
+     * так как требуют всех записей.
+     *
+     * @param pagedList Виртуальный список или null при полной загрузке
+     */
+    private void applyLoadMode(PagedList<WarehouseDTO> pagedList) {
+        boolean paged = pagedList != null;
+
+        warehousesTable.setItems(paged ? pagedList : sortedWarehouseList);
+        warehousesTable.getColumns().forEach(column -> column.setSortable(!paged));
+        filterTextField.setDisable(paged);
+        advancedFilterButton.setDisable(paged);
+
+        if (paged) {
+            pagedList.setOnLoadFailed(_ ->
+                    alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить страницу списка складов"));
+            loadingProgressLabel.setText(String.format("Постраничный режим: %d записей", pagedList.size()));
+            loadingProgressLabel.setVisible(true);
+            loadingProgressLabel.setManaged(true);
+        }
+    }
+}
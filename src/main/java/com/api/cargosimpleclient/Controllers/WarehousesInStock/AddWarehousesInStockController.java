@@ -2,17 +2,13 @@ package com.api.cargosimpleclient.Controllers.WarehousesInStock;
 
 import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Map;
 
 /**
  * Контроллер для добавления новых товаров на склад.
@@ -44,6 +40,10 @@ public class AddWarehousesInStockController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private AddWarehousesInStockController.WarehouseInStockAddedListener warehouseInStockAddedListener;
 
     /**
@@ -61,25 +61,12 @@ public class AddWarehousesInStockController {
         try {
             collectWarehouseInStockData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-            Map<String, Object> warehouseMap = objectMapper.convertValue(warehouseInStockDTO, Map.class);
-            warehouseMap.remove("id");
-
-            String jsonWarehouse = objectMapper.writeValueAsString(warehouseMap);
-
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouse-stocks"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonWarehouse))
-                    .build();
+            String jsonWarehouse = codecService.writeWithoutId(warehouseInStockDTO);
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.post("/api/warehouse-stocks", jsonWarehouse);
 
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                WarehouseInStockDTO savedWarehouse = objectMapper.readValue(response.body(), WarehouseInStockDTO.class);
+                WarehouseInStockDTO savedWarehouse = codecService.read(response.body(), WarehouseInStockDTO.class);
 
                 if (warehouseInStockAddedListener != null) {
                     warehouseInStockAddedListener.onWarehouseAdded(savedWarehouse);
@@ -2,15 +2,13 @@ package com.api.cargosimpleclient.Controllers.WarehousesInStock;
 
 import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
 import com.api.cargosimpleclient.Services.AlertService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
 /**
@@ -42,6 +40,10 @@ public class EditWarehousesInStockController {
 
     private AlertService alertService;
 
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    private final CodecService codecService = new CodecService();
+
     private EditWarehousesInStockController.WarehouseInStockUpdatedListener warehouseInStockUpdatedListener;
 
     /**
@@ -54,27 +56,20 @@ public class EditWarehousesInStockController {
     @FXML
     private void handleUpdateWarehouseInStock() {
         try {
-            validateAndUpdateWarehouseInStockData();
+            WarehouseInStockDTO editedStock = validateAndUpdateWarehouseInStockData();
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonWarehouse = objectMapper.writeValueAsString(warehouseInStockDTO);
+            String jsonWarehouse = codecService.write(editedStock);
 
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouse-stocks/" + warehouseInStockDTO.getId()))
-                    .header("Content-Type", "application/json")
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonWarehouse))
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = apiGatewayService.put("/api/warehouse-stocks/" + warehouseInStockDTO.getId(), jsonWarehouse);
 
             if (response.statusCode() == 200) {
 
-                WarehouseInStockDTO updatedWarehouse = objectMapper.readValue(response.body(), WarehouseInStockDTO.class);
+                WarehouseInStockDTO updatedWarehouse = codecService.read(response.body(), WarehouseInStockDTO.class);
 
                 if (warehouseInStockUpdatedListener != null) {
+                    Long previousProductId = warehouseInStockDTO.getProductId();
                     Platform.runLater(() ->
-                            warehouseInStockUpdatedListener.onWarehouseInStockUpdated(updatedWarehouse)
+                            warehouseInStockUpdatedListener.onWarehouseInStockUpdated(updatedWarehouse, previousProductId)
                     );
                 }
 
@@ -102,9 +97,13 @@ public class EditWarehousesInStockController {
 
     /**
      * Интерфейс для слушателя обновления товара на складе.
+     * <p>
+     * Вместе с обновленной записью передается товар, к которому
+     * она относилась до изменения: в постраничном режиме прежней
+     * записи может не быть в хранилище.
      */
     public interface WarehouseInStockUpdatedListener {
-        void onWarehouseInStockUpdated(WarehouseInStockDTO warehouse);
+        void onWarehouseInStockUpdated(WarehouseInStockDTO warehouse, Long previousProductId);
     }
 
     /**
@@ -135,23 +134,28 @@ public class EditWarehousesInStockController {
     /**
      * Валидация и обновление данных о товаре на складе.
      * <p>
-     * Проверяет введенные данные на корректность и обновляет объект
-     * WarehouseInStockDTO с новыми значениями.
+     * Проверяет введенные данные на корректность и формирует новый объект
+     * WarehouseInStockDTO с идентификатором редактируемой записи.
+     * Строка таблицы не изменяется до получения ответа сервера.
      * <p>
+     * @return Обновленные данные о товаре на складе
      * @throws IllegalArgumentException если одно из полей пустое
      */
-    private void validateAndUpdateWarehouseInStockData() {
+    private WarehouseInStockDTO validateAndUpdateWarehouseInStockData() {
         String productId = validateAndTrimField(productIdField, "ID товара");
         String warehouseId = validateAndTrimField(warehouseIdField, "ID склада");
         String currentQuantity = validateAndTrimField(currentQuantityField, "Текущее количество");
         String reservedQuantity = validateAndTrimField(reservedQuantityField, "Зарезервированное количество");
         String email = validateAndTrimField(locationField, "Локация");
 
-        warehouseInStockDTO.setProductId(Long.valueOf(productId));
-        warehouseInStockDTO.setWarehouseId(Long.valueOf(warehouseId));
-        warehouseInStockDTO.setCurrentQuantity(Integer.parseInt(currentQuantity));
-        warehouseInStockDTO.setReservedQuantity(Integer.parseInt(reservedQuantity));
-        warehouseInStockDTO.setLocation(email);
+        WarehouseInStockDTO editedStock = new WarehouseInStockDTO();
+        editedStock.setId(warehouseInStockDTO.getId());
+        editedStock.setProductId(Long.valueOf(productId));
+        editedStock.setWarehouseId(Long.valueOf(warehouseId));
+        editedStock.setCurrentQuantity(Integer.parseInt(currentQuantity));
+        editedStock.setReservedQuantity(Integer.parseInt(reservedQuantity));
+        editedStock.setLocation(email);
+        return editedStock;
     }
 
     /**
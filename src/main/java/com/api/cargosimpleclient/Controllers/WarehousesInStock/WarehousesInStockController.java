@@ -1,11 +1,23 @@
 package com.api.cargosimpleclient.Controllers.WarehousesInStock;
 
+import com.api.cargosimpleclient.Controllers.CellValues;
+import com.api.cargosimpleclient.Controllers.DataAsOfLabels;
+import com.api.cargosimpleclient.Controllers.TableSorting;
 import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.api.cargosimpleclient.Filters.CompiledFilter;
+import com.api.cargosimpleclient.Filters.FilterCompiler;
+import com.api.cargosimpleclient.Paging.PagedList;
 import com.api.cargosimpleclient.Services.AlertService;
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.ApiResponseException;
 import com.api.cargosimpleclient.Services.LoadViewService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.api.cargosimpleclient.Services.ViewLifecycle;
+import com.api.cargosimpleclient.Statistics.WarehouseInStockStatistics;
+import com.api.cargosimpleclient.Stores.EntityStore;
+import com.api.cargosimpleclient.Stores.StockStore;
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -16,19 +28,17 @@ import javafx.geometry.Insets;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -42,7 +52,14 @@ import java.util.Optional;
  * - Статистический анализ складских остатков
  *
  */
-public class WarehousesInStockController {
+public class WarehousesInStockController implements ViewLifecycle {
+
+    private static final FilterCompiler<WarehouseInStockDTO> FILTER_COMPILER = new FilterCompiler<WarehouseInStockDTO>()
+            .longField("ID товара", WarehouseInStockDTO::getProductId)
+            .longField("ID склада", WarehouseInStockDTO::getWarehouseId)
+            .intField("Текущее количество", WarehouseInStockDTO::getCurrentQuantity)
+            .intField("Зарезервированное количество", WarehouseInStockDTO::getReservedQuantity)
+            .pooledStringField("Локация", WarehouseInStockDTO::getLocation);
 
     @FXML
     private TableView<WarehouseInStockDTO> warehouseInStockTable;
@@ -69,6 +86,12 @@ public class WarehousesInStockController {
     @FXML
     private Label totalReservedQuantity;
 
+    @FXML
+    private Label loadingProgressLabel;
+
+    @FXML
+    private Label dataAsOfLabel;
+
 
     @FXML
     private Button productsButton;
@@ -86,34 +109,61 @@ public class WarehousesInStockController {
     @FXML
     private Button advancedFilterButton;
 
-    private ObservableList<WarehouseInStockDTO> masterInStockList;
     private FilteredList<WarehouseInStockDTO> filteredInStockList;
 
     private final LoadViewService loadViewService = new LoadViewService();
     private final AlertService alertService = new AlertService();
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+    private final StockStore stockStore = StockStore.getInstance();
+    private final WarehouseInStockStatistics inStockStatistics = stockStore.getStatistics();
+
+    private SortedList<WarehouseInStockDTO> sortedWarehouseList;
+
+    /*
+     * Хранилище живет дольше представления, поэтому подписки на него
+     * выполняются через слабые слушатели, а сильные ссылки держит контроллер.
+     */
+    private final ChangeListener<EntityStore.State> storeStateListener = (_, _, state) -> applyStoreState(state);
+
+    private final ChangeListener<Number> loadingProgressListener = (_, _, received) -> {
+        if (stockStore.getState() == EntityStore.State.LOADING) {
+            showLoadingProgress(received.longValue());
+        }
+    };
 
     /**
      * Инициализация контроллера товаров на складах.
      * <p>
      * Выполняет ключевые настройки:
-     * - Создание observable списков
+     * - Создание списков поверх общего хранилища остатков
      * - Настройка фильтрации и сортировки
      * - Установка обработчиков событий
-     * - Загрузка данных с сервера
+     * - Загрузка данных, если они еще не загружены
      * - Первоначальная настройка интерфейса
      */
     @FXML
     public void initialize() {
-        masterInStockList = FXCollections.observableArrayList();
-        filteredInStockList = new FilteredList<>(masterInStockList, _ -> true);
+        filteredInStockList = new FilteredList<>(stockStore.items(), _ -> true);
+        inStockStatistics.setOnUpdated(this::updateStatistics);
+        updateStatistics();
 
-        SortedList<WarehouseInStockDTO> sortedWarehouseList = new SortedList<>(filteredInStockList);
-        sortedWarehouseList.comparatorProperty().bind(warehouseInStockTable.comparatorProperty());
+        sortedWarehouseList = new SortedList<>(filteredInStockList);
+        TableSorting.bind(warehouseInStockTable, sortedWarehouseList, Map.of(
+                idColumn, TableSorting.by(WarehouseInStockDTO::getId),
+                productIdColumn, TableSorting.by(WarehouseInStockDTO::getProductId),
+                warehouseIdColumn, TableSorting.by(WarehouseInStockDTO::getWarehouseId),
+                currentQuantityColumn, Comparator.comparingInt(WarehouseInStockDTO::getCurrentQuantity),
+                reservedQuantityColumn, Comparator.comparingInt(WarehouseInStockDTO::getReservedQuantity),
+                locationColumn, TableSorting.by(WarehouseInStockDTO::getLocation)));
 
         warehouseInStockTable.setItems(sortedWarehouseList);
 
         setupTableColumns();
-        loadWarehousesInStockFromServer();
+
+        stockStore.stateProperty().addListener(new WeakChangeListener<>(storeStateListener));
+        stockStore.receivedProperty().addListener(new WeakChangeListener<>(loadingProgressListener));
+        DataAsOfLabels.bind(dataAsOfLabel, stockStore);
+        loadWarehousesInStock();
 
         editWarehouseInStockButton.setDisable(true);
 
@@ -150,8 +200,6 @@ public class WarehousesInStockController {
                     deleteWarehouseInStockButton.setDisable(newSelection == null);
                 }
         );
-
-        updateStatistics();
     }
 
     /**
@@ -161,7 +209,7 @@ public class WarehousesInStockController {
      * - Проверку выбора товара
      * - Отображение диалога подтверждения
      * - Отправку HTTP-запроса на удаление
-     * - Обновление локального списка и статистики
+     * - Удаление записи из общего хранилища
      */
     @FXML
     private void deleteSelectedWarehouseInStock() {
@@ -180,19 +228,12 @@ public class WarehousesInStockController {
         Optional<ButtonType> result = confirmDialog.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
-                HttpClient client = HttpClient.newHttpClient();
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create("http://localhost:8081/api/warehouse-stocks/" + selectedProduct.getId()))
-                        .DELETE()
-                        .build();
-
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                HttpResponse<String> response = apiGatewayService.delete("/api/warehouse-stocks/" + selectedProduct.getId());
 
                 if (response.statusCode() == 204) {
                     Platform.runLater(() -> {
-                        masterInStockList.remove(selectedProduct);
+                        stockStore.remove(selectedProduct);
                         alertService.showSuccessAlert("Товар успешно удален со склада");
-                        updateStatistics();
                     });
                 } else {
                     alertService.showErrorAlert("Ошибка", "Не удалось удалить товар со склада");
@@ -221,11 +262,7 @@ public class WarehousesInStockController {
             AddWarehousesInStockController addController = loader.getController();
 
             addController.setOnWarehouseInStockAddedListener(newWarehouse -> {
-                Platform.runLater(() -> {
-                    if (masterInStockList != null) {
-                        masterInStockList.add(newWarehouse);
-                    }
-                });
+                Platform.runLater(() -> stockStore.put(newWarehouse));
             });
 
             Stage dialogStage = new Stage();
@@ -235,7 +272,6 @@ public class WarehousesInStockController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог добавления товара на склад");
         }
@@ -266,15 +302,8 @@ public class WarehousesInStockController {
             EditWarehousesInStockController editController = loader.getController();
             editController.setWarehouseInStockToEdit(selectedWarehouse);
 
-            editController.setOnWarehouseInStockUpdatedListener(updatedWarehouse -> {
-                Platform.runLater(() -> {
-                    if (masterInStockList != null) {
-                        int index = masterInStockList.indexOf(selectedWarehouse);
-                        if (index != -1) {
-                            masterInStockList.set(index, updatedWarehouse);
-                        }
-                    }
-                });
+            editController.setOnWarehouseInStockUpdatedListener((updatedWarehouse, previousProductId) -> {
+                Platform.runLater(() -> stockStore.put(updatedWarehouse, previousProductId));
             });
 
             Stage dialogStage = new Stage();
@@ -284,7 +313,6 @@ public class WarehousesInStockController {
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             dialogStage.setScene(scene);
             dialogStage.showAndWait();
-            updateStatistics();
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть диалог редактирования");
         }
@@ -324,7 +352,6 @@ public class WarehousesInStockController {
     private void clearFilters() {
         filterTextField.clear();
         filteredInStockList.setPredicate(warehouse -> true);
-        updateStatistics();
     }
 
     /**
@@ -364,12 +391,12 @@ public class WarehousesInStockController {
      * - Локация
      */
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        productIdColumn.setCellValueFactory(new PropertyValueFactory<>("productId"));
-        warehouseIdColumn.setCellValueFactory(new PropertyValueFactory<>("warehouseId"));
-        currentQuantityColumn.setCellValueFactory(new PropertyValueFactory<>("currentQuantity"));
-        reservedQuantityColumn.setCellValueFactory(new PropertyValueFactory<>("reservedQuantity"));
-        locationColumn.setCellValueFactory(new PropertyValueFactory<>("location"));
+        idColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::idProperty));
+        productIdColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::productIdProperty));
+        warehouseIdColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::warehouseIdProperty));
+        currentQuantityColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::currentQuantityProperty));
+        reservedQuantityColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::reservedQuantityProperty));
+        locationColumn.setCellValueFactory(CellValues.of(WarehouseInStockDTO::locationProperty));
 
         idColumn.setSortable(true);
         productIdColumn.setSortable(true);
@@ -428,19 +455,22 @@ public class WarehousesInStockController {
         TextField valueTextField = new TextField();
         valueTextField.setPromptText("Введите значение");
 
-        ListView<String> activeFiltersListView = new ListView<>();
-        ObservableList<String> activeFiltersList = FXCollections.observableArrayList();
+        ListView<CompiledFilter<WarehouseInStockDTO>> activeFiltersListView = new ListView<>();
+        ObservableList<CompiledFilter<WarehouseInStockDTO>> activeFiltersList = FXCollections.observableArrayList();
         activeFiltersListView.setItems(activeFiltersList);
 
         Button addFilterButton = new Button("Добавить фильтр");
         addFilterButton.setOnAction(e -> {
             if (validateFilterInput(fieldComboBox, operatorComboBox, valueTextField)) {
-                String filterCondition = createFilterCondition(
+                CompiledFilter<WarehouseInStockDTO> filter = compileFilter(
                         fieldComboBox.getValue(),
                         operatorComboBox.getValue(),
                         valueTextField.getText()
                 );
-                activeFiltersList.add(filterCondition);
+                if (filter == null) {
+                    return;
+                }
+                activeFiltersList.add(filter);
 
                 fieldComboBox.setValue(null);
                 operatorComboBox.setValue(null);
@@ -546,205 +576,58 @@ public class WarehousesInStockController {
     }
 
     /**
-     * Создание строкового представления условия фильтра.
+     * Компиляция условия фильтра.
      * <p>
-     * Формирует читаемое описание фильтра в формате:
-     * "Поле Условие "Значение""
+     * Значение фильтра приводится к типу поля один раз,
+     * при ошибке формата пользователь получает сообщение.
      * <p>
      * @param field Выбранное поле фильтрации
      * @param operator Выбранное условие фильтрации
      * @param value Значение для фильтрации
-     * @return Строковое представление условия фильтра
+     * @return Скомпилированное условие или null при ошибке формата
      */
-    private String createFilterCondition(
+    private CompiledFilter<WarehouseInStockDTO> compileFilter(
             String field,
             String operator,
             String value
     ) {
-        return String.format("%s %s \"%s\"", field, operator, value);
-    }
-
-    /**
-     * Применение фильтров к списку товаров на складах.
-     * <p>
-     * Устанавливает предикат для фильтрации списка товаров:
-     * - Если фильтры отсутствуют, возвращает все элементы
-     * - Проверяет соответствие каждого товара всем активным фильтрам
-     * <p>
-     * @param activeFiltersList Список активных условий фильтрации
-     */
-    private void applyFilters(ObservableList<String> activeFiltersList) {
-        filteredInStockList.setPredicate(warehouse -> {
-            if (activeFiltersList.isEmpty()) {
-                return true;
-            }
-
-            for (String filterCondition : activeFiltersList) {
-                if (!matchesFilter(warehouse, filterCondition)) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
-    }
-
-    /**
-     * Проверка соответствия товара условиям фильтра.
-     * <p>
-     * Выполняет разбор условия фильтра и сравнение значений:
-     * - Определение поля фильтрации
-     * - Выбор оператора сравнения
-     * - Преобразование и сравнение значений
-     * <p>
-     * Поддерживаемые типы фильтрации:
-     * - ID товара
-     * - ID склада
-     * - Текущее количество
-     * - Зарезервированное количество
-     * - Локация
-     *
-     * @param warehouse Товар на складе для проверки
-     * @param filterCondition Строковое условие фильтрации
-     * @return true, если товар соответствует фильтру, иначе false
-     */
-    private boolean matchesFilter(WarehouseInStockDTO warehouse, String filterCondition) {
-        String field, operator, value;
-        String[] parts = filterCondition.split(" ", 6);
-        if (Objects.equals(parts[0], "Локация")){
-            field = parts[0];
-            if (Objects.equals(parts[2], "или")){
-                operator = parts[1] + " " + parts[2] + " " + parts[3];
-                value = parts[4].replaceAll("^\"|\"$", "");
-            }
-            else {
-                operator = parts[1];
-                value = parts[2].replaceAll("^\"|\"$", "");
-            }
-        }
-        else
-        {
-            field = parts[0] + " " + parts[1];
-            if (Objects.equals(parts[3], "или")){
-                operator = parts[2] + " " + parts[3] + " " + parts[4];
-                value = parts[5].replaceAll("^\"|\"$", "");
-            }
-            else {
-                operator = parts[2];
-                value = parts[3].replaceAll("^\"|\"$", "");
-            }
-        }
-
         try {
-            switch (field) {
-                case "ID товара":
-                    return compareLong(warehouse.getProductId(), operator, Long.valueOf(value));
-                case "ID склада":
-                    return compareLong(warehouse.getWarehouseId(), operator, Long.valueOf(value));
-                case "Текущее количество":
-                    return compareInteger(warehouse.getCurrentQuantity(), operator, Integer.parseInt(value));
-                case "Зарезервированное количество":
-                    return compareInteger(warehouse.getReservedQuantity(), operator, Integer.parseInt(value));
-                case "Локация":
-                    return compareString(warehouse.getLocation(), operator, value);
-            }
+            return FILTER_COMPILER.compile(field, operator, value);
         } catch (NumberFormatException e) {
             alertService.showErrorAlert("Ошибка", "Неверный формат числа: " + value);
-        } catch (Exception e) {
-            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + filterCondition);
+        } catch (IllegalArgumentException e) {
+            alertService.showErrorAlert("Ошибка", "Неверный формат фильтра: " + e.getMessage());
         }
-
-        return false;
+        return null;
     }
 
     /**
-     * Сравнение строковых значений с учетом регистра.
-     * <p>
-     * Поддерживаемые операторы:
-     * - "Содержит": частичное совпадение
-     * - "Равно": полное совпадение
-     * <p>
-     * @param warehouseValue Значение из объекта товара
-     * @param operator Оператор сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
-     */
-    private boolean compareString(String warehouseValue, String operator, String filterValue) {
-        warehouseValue = warehouseValue.toLowerCase();
-        filterValue = filterValue.toLowerCase();
-
-        return switch (operator) {
-            case "Содержит" -> warehouseValue.contains(filterValue);
-            case "Равно" -> warehouseValue.equals(filterValue);
-            default -> false;
-        };
-    }
-
-    /**
-     * Сравнение Long значений.
-     * <p>
-     * Поддерживаемые операторы:
-     * - "Больше"
-     * - "Меньше"
-     * - "Больше или равно"
-     * - "Меньше или равно"
-     * - "Равно"
-     * <p>
-     * @param productValue Значение из объекта товара
-     * @param operator Оператор сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
-     */
-    private boolean compareLong(Long productValue, String operator, Long filterValue) {
-        return switch (operator) {
-            case "Больше" -> productValue > filterValue;
-            case "Меньше" -> productValue < filterValue;
-            case "Больше или равно" -> productValue >= filterValue;
-            case "Меньше или равно" -> productValue <= filterValue;
-            case "Равно" -> Objects.equals(productValue, filterValue);
-            default -> false;
-        };
-    }
-
-    /**
-     * Сравнение целочисленных значений.
-     * <p>
-     * Поддерживаемые операторы:
-     * - "Больше"
-     * - "Меньше"
-     * - "Больше или равно"
-     * - "Меньше или равно"
-     * - "Равно"
+     * Применение фильтров к списку товаров на складах.
      * <p>
-     * @param warehouseValue Значение из объекта товара
-     * @param operator Оператор сравнения
-     * @param filterValue Значение фильтра
-     * @return Результат сравнения
+     * Скомпилированные условия объединяются в один предикат:
+     * запись проходит фильтрацию, если соответствует всем условиям.
+     * Разбор условий выполнен заранее, при их добавлении.
+     *
+     * @param activeFiltersList Список активных фильтров
      */
-    private boolean compareInteger(int warehouseValue, String operator, int filterValue) {
-        return switch (operator) {
-            case "Больше" -> warehouseValue > filterValue;
-            case "Меньше" -> warehouseValue < filterValue;
-            case "Больше или равно" -> warehouseValue >= filterValue;
-            case "Меньше или равно" -> warehouseValue <= filterValue;
-            case "Равно" -> warehouseValue == filterValue;
-            default -> false;
-        };
+    private void applyFilters(List<CompiledFilter<WarehouseInStockDTO>> activeFiltersList) {
+        filteredInStockList.setPredicate(FilterCompiler.allOf(List.copyOf(activeFiltersList)));
     }
 
     /**
      * Обновление статистических показателей товаров на складах.
      * <p>
-     * Вычисляет и отображает:
+     * Отображает:
      * - Количество уникальных товаров
      * - Количество уникальных складов
      * - Общее количество товаров
      * - Количество зарезервированных товаров
      * <p>
-     * При пустом списке устанавливает нулевые значения
+     * Значения поддерживаются агрегатором {@link WarehouseInStockStatistics}
+     * по событиям изменения списка. При пустом списке отображаются нулевые значения
      */
     private void updateStatistics() {
-        if (masterInStockList == null || masterInStockList.isEmpty()) {
+        if (inStockStatistics.getCount() == 0) {
             uniqueProductCount.setText("Всего товаров: 0");
             uniqueWarehouseCount.setText("Всего уникальных складов: 0");
             totalProductQuantity.setText("Общее количество товаров: 0");
@@ -752,28 +635,10 @@ public class WarehousesInStockController {
             return;
         }
 
-        long uniqueProducts = masterInStockList.stream()
-                .map(WarehouseInStockDTO::getProductId)
-                .distinct()
-                .count();
-
-        long uniqueWarehouses = masterInStockList.stream()
-                .map(WarehouseInStockDTO::getWarehouseId)
-                .distinct()
-                .count();
-
-        int totalProducts = masterInStockList.stream()
-                .mapToInt(WarehouseInStockDTO::getCurrentQuantity)
-                .sum();
-
-        int totalReserved = masterInStockList.stream()
-                .mapToInt(WarehouseInStockDTO::getReservedQuantity)
-                .sum();
-
-        uniqueProductCount.setText(String.format("Всего уникальных товаров: %d", uniqueProducts));
-        uniqueWarehouseCount.setText(String.format("Всего уникальных складов: %d", uniqueWarehouses));
-        totalProductQuantity.setText(String.format("Общее количество товаров: %d", totalProducts));
-        totalReservedQuantity.setText(String.format("Зарезервировано товаров: %d", totalReserved));
+        uniqueProductCount.setText(String.format("Всего уникальных товаров: %d", inStockStatistics.getUniqueProductCount()));
+        uniqueWarehouseCount.setText(String.format("Всего уникальных складов: %d", inStockStatistics.getUniqueWarehouseCount()));
+        totalProductQuantity.setText(String.format("Общее количество товаров: %d", inStockStatistics.getTotalQuantity()));
+        totalReservedQuantity.setText(String.format("Зарезервировано товаров: %d", inStockStatistics.getTotalReserved()));
     }
 
     /**
@@ -795,40 +660,108 @@ public class WarehousesInStockController {
     }
 
     /**
-     * Загрузка списка товаров на складах с сервера.
+     * Повторное отображение страницы из кэша представлений.
      * <p>
-     * Выполняет:
-     * - HTTP-запрос к серверу
-     * - Десериализацию JSON-ответа
-     * - Обновление локального списка
-     * - Обновление статистики
+     * Данные, фильтры и положение прокрутки сохраняются с прошлого посещения.
+     * Изменения, сделанные на других страницах, уже применены к общему
+     * хранилищу, а изменения на сервере запрашиваются обновлением
+     * хранилища, которое затрагивает только изменившиеся строки.
+     * Если загрузка хранилища завершилась ошибкой, она запускается повторно.
+     */
+    @Override
+    public void onViewShown() {
+        stockStore.refresh(this::showLoadError);
+        applyStoreState(stockStore.getState());
+    }
+
+    /**
+     * Загрузка товаров на складах, если они еще не загружены.
      * <p>
-     * Обработка ошибок:
-     * - Отображение диалогов об ошибках
-     * - Логирование исключительных ситуаций
+     * Список загружается общим хранилищем однократно для всех
+     * представлений; незавершенная загрузка, запущенная другой
+     * страницей, используется как есть.
      */
-    private void loadWarehousesInStockFromServer() {
-        try {
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8081/api/warehouse-stocks"))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                List<WarehouseInStockDTO> warehouses = objectMapper.readValue(response.body(), new TypeReference<List<WarehouseInStockDTO>>() {});
-
-                masterInStockList.clear();
-                masterInStockList.addAll(warehouses);
-                updateStatistics();
-            } else {
-                alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список товаров на складах");
-            }
-        } catch (Exception e) {
+    private void loadWarehousesInStock() {
+        stockStore.ensureLoaded(this::showLoadError);
+        applyStoreState(stockStore.getState());
+    }
+
+    /**
+     * Отображение состояния хранилища товаров на складах.
+     * <p>
+     * Вызывается при каждом изменении состояния, в том числе
+     * когда загрузку запустило другое представление.
+     *
+     * @param state Состояние хранилища
+     */
+    private void applyStoreState(EntityStore.State state) {
+        if (state == EntityStore.State.LOADING) {
+            applyLoadMode(null);
+            warehouseInStockTable.setPlaceholder(new Label("Загрузка товаров на складах..."));
+            showLoadingProgress(stockStore.receivedProperty().get());
+            return;
+        }
+
+        finishLoading();
+        applyLoadMode(stockStore.getPagedList());
+    }
+
+    /**
+     * Отображение ошибки загрузки списка товаров на складах.
+     *
+     * @param throwable Ошибка загрузки
+     */
+    private void showLoadError(Throwable throwable) {
+        if (throwable instanceof ApiResponseException) {
+            alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить список товаров на складах");
+        } else {
             alertService.showErrorAlert("Ошибка сети", "Не удалось подключиться к серверу");
         }
     }
+
+    /**
+     * Отображение числа полученных записей во время загрузки.
+     *
+     * @param received Количество полученных записей
+     */
+    private void showLoadingProgress(long received) {
+        loadingProgressLabel.setText(String.format("Получено записей: %d", received));
+        loadingProgressLabel.setVisible(true);
+        loadingProgressLabel.setManaged(true);
+    }
+
+    /**
+     * Скрытие индикатора загрузки.
+     */
+    private void finishLoading() {
+        warehouseInStockTable.setPlaceholder(null);
+        loadingProgressLabel.setVisible(false);
+        loadingProgressLabel.setManaged(false);
+    }
+
+    /**
+     * Переключение таблицы между полной и постраничной загрузкой.
+     * <p>
+     * В постраничном режиме таблица отображает виртуальный список,
+     * а фильтрация и сортировка на стороне клиента недоступны,
+     * так как требуют всех записей.
+     *
+     * @param pagedList Виртуальный список или null при полной загрузке
+     */
+    private void applyLoadMode(PagedList<WarehouseInStockDTO> pagedList) {
+        boolean paged = pagedList != null;
+
+        warehouseInStockTable.setItems(paged ? pagedList : sortedWarehouseList);
+        warehouseInStockTable.getColumns().forEach(column -> column.setSortable(!paged));
+        filterTextField.setDisable(paged);
+        advancedFilterButton.setDisable(paged);
+
+        if (paged) {
+            pagedList.setOnLoadFailed(_ ->
+                    alertService.showErrorAlert("Ошибка загрузки", "Не удалось загрузить страницу списка товаров на складах"));
+            loadingProgressLabel.setText(String.format("Постраничный режим: %d записей", pagedList.size()));
+            loadingProgressLabel.setVisible(true);
+            loadingProgressLabel.setManaged(true);
+        }
+    }
 }
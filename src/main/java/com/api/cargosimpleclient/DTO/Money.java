@@ -0,0 +1,111 @@
+package com.api.cargosimpleclient.DTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежные суммы в виде целого числа минимальных единиц (копеек).
+ * <p>
+ * Цены хранятся и агрегируются как {@code long} с {@value #SCALE}
+ * знаками после запятой, а в {@link BigDecimal} преобразуются только
+ * на границах: при разборе и записи JSON и при отображении. Сложение,
+ * сравнение и усреднение цен не создают объектов.
+ * <p>
+ * Отсутствующая цена обозначается значением {@link #NO_PRICE},
+ * которое при сортировке меньше любой цены.
+ */
+public final class Money {
+
+    /**
+     * Количество знаков после запятой.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Признак отсутствующей цены.
+     */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private Money() {
+    }
+
+    /**
+     * Преобразование суммы в минимальные единицы без округления.
+     *
+     * @param value Сумма или null
+     * @return Сумма в минимальных единицах или {@link #NO_PRICE}
+     * @throws ArithmeticException если у суммы больше {@value #SCALE} знаков
+     *                             после запятой или она не помещается в long
+     */
+    public static long toMinorUnits(BigDecimal value) {
+        if (value == null) {
+            return NO_PRICE;
+        }
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Преобразование суммы в минимальные единицы с округлением HALF_UP
+     * до {@value #SCALE} знаков.
+     * <p>
+     * Используется только для сортировки и агрегации сумм, которые
+     * не представимы точно; сама сумма при этом не изменяется.
+     *
+     * @param value Сумма или null
+     * @return Сумма в минимальных единицах или {@link #NO_PRICE}
+     * @throws ArithmeticException если сумма не помещается в long
+     */
+    public static long toMinorUnitsRounded(BigDecimal value) {
+        if (value == null) {
+            return NO_PRICE;
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Проверка, что сумма содержит не больше {@value #SCALE} знаков
+     * после запятой, не считая конечных нулей.
+     *
+     * @param value Сумма или null
+     * @return true, если сумма представима в минимальных единицах без округления
+     */
+    public static boolean isExact(BigDecimal value) {
+        return value == null || value.scale() <= SCALE || value.stripTrailingZeros().scale() <= SCALE;
+    }
+
+    /**
+     * Преобразование минимальных единиц в сумму.
+     *
+     * @param minorUnits Сумма в минимальных единицах или {@link #NO_PRICE}
+     * @return Сумма с {@value #SCALE} знаками после запятой или null
+     */
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return minorUnits == NO_PRICE ? null : BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Сумма в минимальных единицах, в которой отсутствующая цена считается нулем.
+     *
+     * @param minorUnits Сумма в минимальных единицах или {@link #NO_PRICE}
+     * @return Сумма в минимальных единицах
+     */
+    public static long orZero(long minorUnits) {
+        return minorUnits == NO_PRICE ? 0 : minorUnits;
+    }
+
+    /**
+     * Деление суммы с округлением HALF_UP, например для средних значений.
+     *
+     * @param minorUnits Сумма в минимальных единицах
+     * @param divisor Положительный делитель
+     * @return Частное в минимальных единицах
+     */
+    public static long divideHalfUp(long minorUnits, long divisor) {
+        long quotient = minorUnits / divisor;
+        long remainder = minorUnits % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(minorUnits);
+        }
+        return quotient;
+    }
+}
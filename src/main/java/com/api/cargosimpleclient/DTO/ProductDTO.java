@@ -1,96 +1,288 @@
 package com.api.cargosimpleclient.DTO;
 
-import javafx.beans.property.*;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
 import java.math.BigDecimal;
+import java.util.Objects;
 
 /**
  * DTO (Data Transfer Object) для представления информации о товаре.
  * <p>
- * Содержит детальную информацию о товаре с использованием
+ * Содержит детальную информацию о товаре с поддержкой
  * JavaFX Properties для обеспечения реактивности данных.
+ * <p>
+ * Значения хранятся в обычных полях, а JavaFX Properties создаются
+ * только при первом обращении к методу {@code xxxProperty()}, например
+ * при привязке видимой ячейки таблицы или поля редактора. Записи,
+ * которые не отображаются, не содержат графа свойств.
+ * <p>
+ * Цены хранятся в минимальных единицах (см. {@link Money}) и доступны
+ * без преобразования через {@link #purchasePriceMinorUnits()}
+ * и {@link #sellingPriceMinorUnits()}; после создания свойства цены
+ * минимальные единицы обновляются его слушателем. Цена сервера
+ * с большим числом знаков сохраняется без изменений, а в минимальных
+ * единицах для сортировки и статистики округляется.
  *
  */
 public class ProductDTO {
-    private final LongProperty id = new SimpleLongProperty();
-    private final StringProperty articleNumber = new SimpleStringProperty();
-    private final StringProperty name = new SimpleStringProperty();
-    private final StringProperty description = new SimpleStringProperty();
-    private final StringProperty category = new SimpleStringProperty();
-    private final StringProperty manufacturer = new SimpleStringProperty();
-    private final ObjectProperty<BigDecimal> purchasePrice = new SimpleObjectProperty<>();
-    private final ObjectProperty<BigDecimal> sellingPrice = new SimpleObjectProperty<>();
-    private final IntegerProperty minStockLevel = new SimpleIntegerProperty();
-    private final IntegerProperty maxStockLevel = new SimpleIntegerProperty();
+
+    private long id;
+    private String articleNumber;
+    private String name;
+    private String description;
+    private String category;
+    private String manufacturer;
+    private long purchasePrice = Money.NO_PRICE;
+    private long sellingPrice = Money.NO_PRICE;
+    private BigDecimal purchasePriceExact;
+    private BigDecimal sellingPriceExact;
+    private int minStockLevel;
+    private int maxStockLevel;
+
+    private ObjectProperty<Long> idProperty;
+    private StringProperty articleNumberProperty;
+    private StringProperty nameProperty;
+    private StringProperty descriptionProperty;
+    private StringProperty categoryProperty;
+    private StringProperty manufacturerProperty;
+    private ObjectProperty<BigDecimal> purchasePriceProperty;
+    private ObjectProperty<BigDecimal> sellingPriceProperty;
+    private ObjectProperty<Integer> minStockLevelProperty;
+    private ObjectProperty<Integer> maxStockLevelProperty;
 
     public void setId(Long value) {
-        id.set(value);
+        if (idProperty != null) {
+            idProperty.set(value);
+        } else {
+            id = value;
+        }
     }
     public Long getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
+    }
+    public ObjectProperty<Long> idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleObjectProperty<>(this, "id", id);
+        }
+        return idProperty;
     }
 
     public void setArticleNumber(String value) {
-        articleNumber.set(value);
+        if (articleNumberProperty != null) {
+            articleNumberProperty.set(value);
+        } else {
+            articleNumber = value;
+        }
     }
     public String getArticleNumber() {
-        return articleNumber.get();
+        return articleNumberProperty != null ? articleNumberProperty.get() : articleNumber;
+    }
+    public StringProperty articleNumberProperty() {
+        if (articleNumberProperty == null) {
+            articleNumberProperty = new SimpleStringProperty(this, "articleNumber", articleNumber);
+        }
+        return articleNumberProperty;
     }
-
 
     public void setName(String value) {
-        name.set(value);
+        if (nameProperty != null) {
+            nameProperty.set(value);
+        } else {
+            name = value;
+        }
     }
     public String getName() {
-        return name.get();
+        return nameProperty != null ? nameProperty.get() : name;
+    }
+    public StringProperty nameProperty() {
+        if (nameProperty == null) {
+            nameProperty = new SimpleStringProperty(this, "name", name);
+        }
+        return nameProperty;
     }
 
     public void setDescription(String value) {
-        description.set(value);
+        if (descriptionProperty != null) {
+            descriptionProperty.set(value);
+        } else {
+            description = value;
+        }
     }
     public String getDescription() {
-        return description.get();
+        return descriptionProperty != null ? descriptionProperty.get() : description;
+    }
+    public StringProperty descriptionProperty() {
+        if (descriptionProperty == null) {
+            descriptionProperty = new SimpleStringProperty(this, "description", description);
+        }
+        return descriptionProperty;
     }
 
     public void setCategory(String value) {
-        category.set(value);
+        if (categoryProperty != null) {
+            categoryProperty.set(value);
+        } else {
+            category = value;
+        }
     }
     public String getCategory() {
-        return category.get();
+        return categoryProperty != null ? categoryProperty.get() : category;
+    }
+    public StringProperty categoryProperty() {
+        if (categoryProperty == null) {
+            categoryProperty = new SimpleStringProperty(this, "category", category);
+        }
+        return categoryProperty;
     }
 
     public void setManufacturer(String value) {
-        manufacturer.set(value);
+        if (manufacturerProperty != null) {
+            manufacturerProperty.set(value);
+        } else {
+            manufacturer = value;
+        }
     }
     public String getManufacturer() {
-        return manufacturer.get();
+        return manufacturerProperty != null ? manufacturerProperty.get() : manufacturer;
+    }
+    public StringProperty manufacturerProperty() {
+        if (manufacturerProperty == null) {
+            manufacturerProperty = new SimpleStringProperty(this, "manufacturer", manufacturer);
+        }
+        return manufacturerProperty;
     }
 
     public void setPurchasePrice(BigDecimal value) {
-        purchasePrice.set(value);
+        if (purchasePriceProperty != null) {
+            purchasePriceProperty.set(value);
+        } else {
+            purchasePrice = Money.toMinorUnitsRounded(value);
+            purchasePriceExact = Money.isExact(value) ? null : value;
+        }
     }
     public BigDecimal getPurchasePrice() {
-        return purchasePrice.get();
+        if (purchasePriceProperty != null) {
+            return purchasePriceProperty.get();
+        }
+        return purchasePriceExact != null ? purchasePriceExact : Money.toBigDecimal(purchasePrice);
+    }
+    public ObjectProperty<BigDecimal> purchasePriceProperty() {
+        if (purchasePriceProperty == null) {
+            purchasePriceProperty = new SimpleObjectProperty<>(this, "purchasePrice", getPurchasePrice());
+            purchasePriceProperty.addListener((_, _, value) -> purchasePrice = Money.toMinorUnitsRounded(value));
+            purchasePriceExact = null;
+        }
+        return purchasePriceProperty;
+    }
+
+    /**
+     * @return Цена в минимальных единицах или {@link Money#NO_PRICE}
+     */
+    public long purchasePriceMinorUnits() {
+        return purchasePrice;
     }
 
     public void setSellingPrice(BigDecimal value) {
-        sellingPrice.set(value);
+        if (sellingPriceProperty != null) {
+            sellingPriceProperty.set(value);
+        } else {
+            sellingPrice = Money.toMinorUnitsRounded(value);
+            sellingPriceExact = Money.isExact(value) ? null : value;
+        }
     }
     public BigDecimal getSellingPrice() {
-        return sellingPrice.get();
+        if (sellingPriceProperty != null) {
+            return sellingPriceProperty.get();
+        }
+        return sellingPriceExact != null ? sellingPriceExact : Money.toBigDecimal(sellingPrice);
+    }
+    public ObjectProperty<BigDecimal> sellingPriceProperty() {
+        if (sellingPriceProperty == null) {
+            sellingPriceProperty = new SimpleObjectProperty<>(this, "sellingPrice", getSellingPrice());
+            sellingPriceProperty.addListener((_, _, value) -> sellingPrice = Money.toMinorUnitsRounded(value));
+            sellingPriceExact = null;
+        }
+        return sellingPriceProperty;
+    }
+
+    /**
+     * @return Цена в минимальных единицах или {@link Money#NO_PRICE}
+     */
+    public long sellingPriceMinorUnits() {
+        return sellingPrice;
     }
 
     public void setMinStockLevel(Integer value) {
-        minStockLevel.set(value);
+        if (minStockLevelProperty != null) {
+            minStockLevelProperty.set(value);
+        } else {
+            minStockLevel = value;
+        }
     }
     public Integer getMinStockLevel() {
-        return minStockLevel.get();
+        return minStockLevelProperty != null ? minStockLevelProperty.get() : minStockLevel;
+    }
+    public ObjectProperty<Integer> minStockLevelProperty() {
+        if (minStockLevelProperty == null) {
+            minStockLevelProperty = new SimpleObjectProperty<>(this, "minStockLevel", minStockLevel);
+        }
+        return minStockLevelProperty;
     }
 
     public void setMaxStockLevel(Integer value) {
-        maxStockLevel.set(value);
+        if (maxStockLevelProperty != null) {
+            maxStockLevelProperty.set(value);
+        } else {
+            maxStockLevel = value;
+        }
     }
     public Integer getMaxStockLevel() {
-        return maxStockLevel.get();
+        return maxStockLevelProperty != null ? maxStockLevelProperty.get() : maxStockLevel;
+    }
+    public ObjectProperty<Integer> maxStockLevelProperty() {
+        if (maxStockLevelProperty == null) {
+            maxStockLevelProperty = new SimpleObjectProperty<>(this, "maxStockLevel", maxStockLevel);
+        }
+        return maxStockLevelProperty;
     }
 
+    /**
+     * Сравнение значений полей с другой записью.
+     * <p>
+     * В отличие от {@code equals}, не меняет семантику сравнения
+     * записей в списках и используется для повторного использования
+     * экземпляров при обновлении данных с сервера.
+     *
+     * @param other Запись для сравнения
+     * @return true, если значения всех полей совпадают
+     */
+    public boolean hasSameValues(ProductDTO other) {
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getArticleNumber(), other.getArticleNumber())
+                && Objects.equals(getName(), other.getName())
+                && Objects.equals(getDescription(), other.getDescription())
+                && Objects.equals(getCategory(), other.getCategory())
+                && Objects.equals(getManufacturer(), other.getManufacturer())
+                && purchasePriceMinorUnits() == other.purchasePriceMinorUnits()
+                && sellingPriceMinorUnits() == other.sellingPriceMinorUnits()
+                && samePrice(getPurchasePrice(), other.getPurchasePrice())
+                && samePrice(getSellingPrice(), other.getSellingPrice())
+                && Objects.equals(getMinStockLevel(), other.getMinStockLevel())
+                && Objects.equals(getMaxStockLevel(), other.getMaxStockLevel());
+    }
+
+    /**
+     * Сравнение цен по значению без учета масштаба. Минимальные единицы
+     * округлены и отсекают только заведомо разные цены, а цены сервера
+     * с большим числом знаков различаются лишь точным значением.
+     */
+    private static boolean samePrice(BigDecimal price, BigDecimal otherPrice) {
+        if (price == null || otherPrice == null) {
+            return price == otherPrice;
+        }
+        return price.compareTo(otherPrice) == 0;
+    }
 }
@@ -1,78 +1,194 @@
 package com.api.cargosimpleclient.DTO;
 
-import javafx.beans.property.*;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.Objects;
 
 /**
  * DTO (Data Transfer Object) для представления информации о складе.
  * <p>
- * Содержит детальную информацию о складском помещении с использованием
+ * Содержит детальную информацию о складском помещении с поддержкой
  * JavaFX Properties для обеспечения реактивности данных.
+ * <p>
+ * Значения хранятся в обычных полях, а JavaFX Properties создаются
+ * только при первом обращении к методу {@code xxxProperty()}, например
+ * при привязке видимой ячейки таблицы или поля редактора. Записи,
+ * которые не отображаются, не содержат графа свойств.
  *
  */
 public class WarehouseDTO {
 
-    private final LongProperty id = new SimpleLongProperty();
-    private final StringProperty name = new SimpleStringProperty();
-    private final StringProperty address = new SimpleStringProperty();
-    private final StringProperty contactPerson = new SimpleStringProperty();
-    private final StringProperty phone = new SimpleStringProperty();
-    private final StringProperty email = new SimpleStringProperty();
-    private final IntegerProperty capacity = new SimpleIntegerProperty();
-    private final ObjectProperty<WarehouseStatus> status = new SimpleObjectProperty<>();
+    private long id;
+    private String name;
+    private String address;
+    private String contactPerson;
+    private String phone;
+    private String email;
+    private int capacity;
+    private WarehouseStatus status;
+
+    private ObjectProperty<Long> idProperty;
+    private StringProperty nameProperty;
+    private StringProperty addressProperty;
+    private StringProperty contactPersonProperty;
+    private StringProperty phoneProperty;
+    private StringProperty emailProperty;
+    private ObjectProperty<Integer> capacityProperty;
+    private ObjectProperty<WarehouseStatus> statusProperty;
 
     public void setId(Long value) {
-        id.set(value);
+        if (idProperty != null) {
+            idProperty.set(value);
+        } else {
+            id = value;
+        }
     }
     public Long getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
+    }
+    public ObjectProperty<Long> idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleObjectProperty<>(this, "id", id);
+        }
+        return idProperty;
     }
 
     public void setName(String value) {
-        name.set(value);
+        if (nameProperty != null) {
+            nameProperty.set(value);
+        } else {
+            name = value;
+        }
     }
     public String getName() {
-        return name.get();
+        return nameProperty != null ? nameProperty.get() : name;
+    }
+    public StringProperty nameProperty() {
+        if (nameProperty == null) {
+            nameProperty = new SimpleStringProperty(this, "name", name);
+        }
+        return nameProperty;
     }
 
     public void setAddress(String value) {
-        address.set(value);
+        if (addressProperty != null) {
+            addressProperty.set(value);
+        } else {
+            address = value;
+        }
     }
     public String getAddress() {
-        return address.get();
+        return addressProperty != null ? addressProperty.get() : address;
+    }
+    public StringProperty addressProperty() {
+        if (addressProperty == null) {
+            addressProperty = new SimpleStringProperty(this, "address", address);
+        }
+        return addressProperty;
     }
 
     public void setContactPerson(String value) {
-        contactPerson.set(value);
+        if (contactPersonProperty != null) {
+            contactPersonProperty.set(value);
+        } else {
+            contactPerson = value;
+        }
     }
     public String getContactPerson() {
-        return contactPerson.get();
+        return contactPersonProperty != null ? contactPersonProperty.get() : contactPerson;
+    }
+    public StringProperty contactPersonProperty() {
+        if (contactPersonProperty == null) {
+            contactPersonProperty = new SimpleStringProperty(this, "contactPerson", contactPerson);
+        }
+        return contactPersonProperty;
     }
 
     public void setPhone(String value) {
-        phone.set(value);
+        if (phoneProperty != null) {
+            phoneProperty.set(value);
+        } else {
+            phone = value;
+        }
     }
     public String getPhone() {
-        return phone.get();
+        return phoneProperty != null ? phoneProperty.get() : phone;
+    }
+    public StringProperty phoneProperty() {
+        if (phoneProperty == null) {
+            phoneProperty = new SimpleStringProperty(this, "phone", phone);
+        }
+        return phoneProperty;
     }
 
     public void setEmail(String value) {
-        email.set(value);
+        if (emailProperty != null) {
+            emailProperty.set(value);
+        } else {
+            email = value;
+        }
     }
     public String getEmail() {
-        return email.get();
+        return emailProperty != null ? emailProperty.get() : email;
+    }
+    public StringProperty emailProperty() {
+        if (emailProperty == null) {
+            emailProperty = new SimpleStringProperty(this, "email", email);
+        }
+        return emailProperty;
     }
 
     public void setCapacity(Integer value) {
-        capacity.set(value);
+        if (capacityProperty != null) {
+            capacityProperty.set(value);
+        } else {
+            capacity = value;
+        }
     }
     public Integer getCapacity() {
-        return capacity.get();
+        return capacityProperty != null ? capacityProperty.get() : capacity;
+    }
+    public ObjectProperty<Integer> capacityProperty() {
+        if (capacityProperty == null) {
+            capacityProperty = new SimpleObjectProperty<>(this, "capacity", capacity);
+        }
+        return capacityProperty;
     }
 
     public void setStatus(WarehouseStatus value) {
-        status.set(value);
+        if (statusProperty != null) {
+            statusProperty.set(value);
+        } else {
+            status = value;
+        }
     }
     public WarehouseStatus getStatus() {
-        return status.get();
+        return statusProperty != null ? statusProperty.get() : status;
+    }
+    public ObjectProperty<WarehouseStatus> statusProperty() {
+        if (statusProperty == null) {
+            statusProperty = new SimpleObjectProperty<>(this, "status", status);
+        }
+        return statusProperty;
     }
-}
\ No newline at end of file
+
+    /**
+     * Сравнение значений полей склада, см. {@link ProductDTO#hasSameValues(ProductDTO)}.
+     *
+     * @param other Запись для сравнения
+     * @return true, если значения всех полей совпадают
+     */
+    public boolean hasSameValues(WarehouseDTO other) {
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getName(), other.getName())
+                && Objects.equals(getAddress(), other.getAddress())
+                && Objects.equals(getContactPerson(), other.getContactPerson())
+                && Objects.equals(getPhone(), other.getPhone())
+                && Objects.equals(getEmail(), other.getEmail())
+                && Objects.equals(getCapacity(), other.getCapacity())
+                && getStatus() == other.getStatus();
+    }
+}
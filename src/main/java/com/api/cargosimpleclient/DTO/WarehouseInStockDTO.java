@@ -1,69 +1,154 @@
 package com.api.cargosimpleclient.DTO;
 
-import javafx.beans.property.*;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.Objects;
 
 /**
  * DTO (Data Transfer Object) для представления товара на складе.
  * <p>
  * Содержит информацию о количестве и расположении товара
- * в конкретном складском помещении с использованием JavaFX Properties.
+ * в конкретном складском помещении с поддержкой JavaFX Properties.
+ * <p>
+ * Значения хранятся в обычных полях, а JavaFX Properties создаются
+ * только при первом обращении к методу {@code xxxProperty()}, например
+ * при привязке видимой ячейки таблицы или поля редактора. Записи,
+ * которые не отображаются, не содержат графа свойств.
  *
  */
 public class WarehouseInStockDTO {
 
-    private final LongProperty id = new SimpleLongProperty();
-    private final LongProperty productId = new SimpleLongProperty();
-    private final LongProperty warehouseId = new SimpleLongProperty();
-    private final IntegerProperty currentQuantity = new SimpleIntegerProperty();
-    private final IntegerProperty reservedQuantity = new SimpleIntegerProperty();
-    private final StringProperty location = new SimpleStringProperty();
-
-    public void setId(Long value){
-        id.set(value);
+    private long id;
+    private long productId;
+    private long warehouseId;
+    private int currentQuantity;
+    private int reservedQuantity;
+    private String location;
+
+    private ObjectProperty<Long> idProperty;
+    private ObjectProperty<Long> productIdProperty;
+    private ObjectProperty<Long> warehouseIdProperty;
+    private ObjectProperty<Integer> currentQuantityProperty;
+    private ObjectProperty<Integer> reservedQuantityProperty;
+    private StringProperty locationProperty;
+
+    public void setId(Long value) {
+        if (idProperty != null) {
+            idProperty.set(value);
+        } else {
+            id = value;
+        }
     }
-
     public Long getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
     }
-
-    public void setProductId(Long value){
-        productId.set(value);
+    public ObjectProperty<Long> idProperty() {
+        if (idProperty == null) {
+            idProperty = new SimpleObjectProperty<>(this, "id", id);
+        }
+        return idProperty;
     }
 
+    public void setProductId(Long value) {
+        if (productIdProperty != null) {
+            productIdProperty.set(value);
+        } else {
+            productId = value;
+        }
+    }
     public Long getProductId() {
-        return productId.get();
+        return productIdProperty != null ? productIdProperty.get() : productId;
+    }
+    public ObjectProperty<Long> productIdProperty() {
+        if (productIdProperty == null) {
+            productIdProperty = new SimpleObjectProperty<>(this, "productId", productId);
+        }
+        return productIdProperty;
     }
 
+    public void setWarehouseId(Long value) {
+        if (warehouseIdProperty != null) {
+            warehouseIdProperty.set(value);
+        } else {
+            warehouseId = value;
+        }
+    }
     public Long getWarehouseId() {
-        return warehouseId.get();
+        return warehouseIdProperty != null ? warehouseIdProperty.get() : warehouseId;
+    }
+    public ObjectProperty<Long> warehouseIdProperty() {
+        if (warehouseIdProperty == null) {
+            warehouseIdProperty = new SimpleObjectProperty<>(this, "warehouseId", warehouseId);
+        }
+        return warehouseIdProperty;
     }
 
+    public void setCurrentQuantity(int value) {
+        if (currentQuantityProperty != null) {
+            currentQuantityProperty.set(value);
+        } else {
+            currentQuantity = value;
+        }
+    }
     public int getCurrentQuantity() {
-        return currentQuantity.get();
+        return currentQuantityProperty != null ? currentQuantityProperty.get() : currentQuantity;
+    }
+    public ObjectProperty<Integer> currentQuantityProperty() {
+        if (currentQuantityProperty == null) {
+            currentQuantityProperty = new SimpleObjectProperty<>(this, "currentQuantity", currentQuantity);
+        }
+        return currentQuantityProperty;
     }
 
+    public void setReservedQuantity(int value) {
+        if (reservedQuantityProperty != null) {
+            reservedQuantityProperty.set(value);
+        } else {
+            reservedQuantity = value;
+        }
+    }
     public int getReservedQuantity() {
-        return reservedQuantity.get();
+        return reservedQuantityProperty != null ? reservedQuantityProperty.get() : reservedQuantity;
     }
-
-    public String getLocation() {
-        return location.get();
+    public ObjectProperty<Integer> reservedQuantityProperty() {
+        if (reservedQuantityProperty == null) {
+            reservedQuantityProperty = new SimpleObjectProperty<>(this, "reservedQuantity", reservedQuantity);
+        }
+        return reservedQuantityProperty;
     }
 
-    public void setWarehouseId(Long value){
-        warehouseId.set(value);
+    public void setLocation(String value) {
+        if (locationProperty != null) {
+            locationProperty.set(value);
+        } else {
+            location = value;
+        }
     }
-
-    public void setCurrentQuantity(int value){
-        currentQuantity.set(value);
+    public String getLocation() {
+        return locationProperty != null ? locationProperty.get() : location;
     }
-
-    public void setReservedQuantity(int value){
-        reservedQuantity.set(value);
+    public StringProperty locationProperty() {
+        if (locationProperty == null) {
+            locationProperty = new SimpleStringProperty(this, "location", location);
+        }
+        return locationProperty;
     }
 
-    public void setLocation(String value){
-        location.set(value);
+    /**
+     * Сравнение значений полей остатка, см. {@link ProductDTO#hasSameValues(ProductDTO)}.
+     *
+     * @param other Запись для сравнения
+     * @return true, если значения всех полей совпадают
+     */
+    public boolean hasSameValues(WarehouseInStockDTO other) {
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getProductId(), other.getProductId())
+                && Objects.equals(getWarehouseId(), other.getWarehouseId())
+                && getCurrentQuantity() == other.getCurrentQuantity()
+                && getReservedQuantity() == other.getReservedQuantity()
+                && Objects.equals(getLocation(), other.getLocation());
     }
-
 }
@@ -0,0 +1,27 @@
+package com.api.cargosimpleclient.Filters;
+
+import java.util.function.Predicate;
+
+/**
+ * Скомпилированное условие расширенного фильтра.
+ * <p>
+ * Хранит читаемое описание условия для списка активных фильтров
+ * и готовый типизированный предикат, не требующий разбора строк
+ * при проверке каждой записи.
+ *
+ * @param description Текстовое представление условия
+ * @param predicate Предикат проверки записи
+ * @param <T> Тип фильтруемых записей
+ */
+public record CompiledFilter<T>(String description, Predicate<T> predicate) implements Predicate<T> {
+
+    @Override
+    public boolean test(T item) {
+        return predicate.test(item);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,235 @@
+package com.api.cargosimpleclient.Filters;
+
+import com.api.cargosimpleclient.DTO.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Компилятор условий расширенного фильтра в типизированные предикаты.
+ * <p>
+ * Условие разбирается один раз при добавлении фильтра:
+ * - Поле заменяется функцией доступа к значению записи
+ * - Оператор заменяется готовой операцией сравнения
+ * - Значение фильтра приводится к типу поля заранее
+ * <p>
+ * Проверка записи сводится к вызову предиката без разбора строк,
+ * регулярных выражений и создания промежуточных объектов.
+ *
+ * @param <T> Тип фильтруемых записей
+ */
+public class FilterCompiler<T> {
+
+    private static final int MAX_MEMOIZED_VALUES = 1024;
+
+    private final Map<String, BiFunction<FilterOperator, String, Predicate<T>>> fields = new LinkedHashMap<>();
+
+    /**
+     * Регистрация строкового поля.
+     * <p>
+     * Поддерживаются операторы "Содержит" и "Равно" без учета регистра.
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к значению поля
+     * @return Текущий компилятор
+     */
+    public FilterCompiler<T> stringField(String label, Function<T, String> accessor) {
+        fields.put(label, (operator, value) -> {
+            Predicate<String> match = stringMatch(operator, value.toLowerCase());
+            return item -> {
+                String itemValue = accessor.apply(item);
+                return itemValue != null && match.test(itemValue);
+            };
+        });
+        return this;
+    }
+
+    /**
+     * Регистрация строкового поля с небольшим числом различных значений.
+     * <p>
+     * Операторы те же, что у {@link #stringField(String, Function)}, но результат
+     * сравнения запоминается для каждого значения поля, поэтому приведение
+     * к нижнему регистру выполняется один раз на значение, а не на запись.
+     * Значения таких полей канонизируются при разборе ответа, так что поиск
+     * результата сводится к сравнению ссылок. Число запоминаемых значений
+     * ограничено {@value #MAX_MEMOIZED_VALUES}.
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к значению поля
+     * @return Текущий компилятор
+     */
+    public FilterCompiler<T> pooledStringField(String label, Function<T, String> accessor) {
+        fields.put(label, (operator, value) -> {
+            Predicate<String> match = stringMatch(operator, value.toLowerCase());
+            Map<String, Boolean> results = new ConcurrentHashMap<>();
+            return item -> {
+                String itemValue = accessor.apply(item);
+                if (itemValue == null) {
+                    return false;
+                }
+
+                Boolean result = results.get(itemValue);
+                if (result == null) {
+                    result = match.test(itemValue);
+                    if (results.size() < MAX_MEMOIZED_VALUES) {
+                        results.put(itemValue, result);
+                    }
+                }
+                return result;
+            };
+        });
+        return this;
+    }
+
+    /**
+     * Регистрация целочисленного поля.
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к значению поля
+     * @return Текущий компилятор
+     */
+    public FilterCompiler<T> intField(String label, ToIntFunction<T> accessor) {
+        fields.put(label, (operator, value) -> {
+            int filterValue = Integer.parseInt(value);
+            return item -> operator.test(Integer.compare(accessor.applyAsInt(item), filterValue));
+        });
+        return this;
+    }
+
+    /**
+     * Регистрация поля типа long (идентификаторы).
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к значению поля
+     * @return Текущий компилятор
+     */
+    public FilterCompiler<T> longField(String label, ToLongFunction<T> accessor) {
+        fields.put(label, (operator, value) -> {
+            long filterValue = Long.parseLong(value);
+            return item -> operator.test(Long.compare(accessor.applyAsLong(item), filterValue));
+        });
+        return this;
+    }
+
+    /**
+     * Регистрация денежного поля, хранящегося в минимальных единицах.
+     * <p>
+     * Значение фильтра переводится в минимальные единицы один раз при компиляции;
+     * значение с большим числом знаков сравнивается точно, без округления.
+     * Значение, не помещающееся в минимальные единицы, считается ошибкой
+     * формата числа. Записи без цены фильтр не проходят.
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к сумме в минимальных единицах
+     * @return Текущий компилятор
+     */
+    public FilterCompiler<T> moneyField(String label, ToLongFunction<T> accessor) {
+        fields.put(label, (operator, value) -> {
+            BigDecimal scaled;
+            long floor;
+            try {
+                scaled = new BigDecimal(value).movePointRight(Money.SCALE);
+                floor = scaled.setScale(0, RoundingMode.FLOOR).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new NumberFormatException("Сумма вне допустимого диапазона: " + value);
+            }
+            boolean exact = scaled.compareTo(BigDecimal.valueOf(floor)) == 0;
+
+            return item -> {
+                long itemValue = accessor.applyAsLong(item);
+                if (itemValue == Money.NO_PRICE) {
+                    return false;
+                }
+                int comparison = exact
+                        ? Long.compare(itemValue, floor)
+                        : (itemValue <= floor ? -1 : 1);
+                return operator.test(comparison);
+            };
+        });
+        return this;
+    }
+
+    /**
+     * Регистрация поля-перечисления.
+     * <p>
+     * Запись проходит фильтр при совпадении значения независимо от оператора.
+     *
+     * @param label Подпись поля в интерфейсе
+     * @param accessor Функция доступа к значению поля
+     * @param type Класс перечисления
+     * @param <E> Тип перечисления
+     * @return Текущий компилятор
+     */
+    public <E extends Enum<E>> FilterCompiler<T> enumField(String label, Function<T, E> accessor, Class<E> type) {
+        fields.put(label, (operator, value) -> {
+            E filterValue = Enum.valueOf(type, value);
+            return item -> accessor.apply(item) == filterValue;
+        });
+        return this;
+    }
+
+    /**
+     * Компиляция условия фильтра.
+     *
+     * @param field Подпись поля
+     * @param operator Подпись условия сравнения
+     * @param value Значение фильтра
+     * @return Скомпилированное условие
+     * @throws NumberFormatException если значение не соответствует числовому типу поля
+     * @throws IllegalArgumentException если поле или условие неизвестны
+     */
+    public CompiledFilter<T> compile(String field, String operator, String value) {
+        BiFunction<FilterOperator, String, Predicate<T>> factory = fields.get(field);
+        if (factory == null) {
+            throw new IllegalArgumentException("Неизвестное поле фильтрации: " + field);
+        }
+
+        String trimmedValue = value.trim();
+        Predicate<T> predicate = factory.apply(FilterOperator.fromLabel(operator), trimmedValue);
+        String description = String.format("%s %s \"%s\"", field, operator, trimmedValue);
+
+        return new CompiledFilter<>(description, predicate);
+    }
+
+    private static Predicate<String> stringMatch(FilterOperator operator, String filterValue) {
+        return switch (operator) {
+            case CONTAINS -> itemValue -> itemValue.toLowerCase().contains(filterValue);
+            case EQUALS -> itemValue -> itemValue.toLowerCase().equals(filterValue);
+            default -> itemValue -> false;
+        };
+    }
+
+    /**
+     * Объединение условий в один предикат (логическое И).
+     *
+     * @param filters Скомпилированные условия
+     * @param <T> Тип фильтруемых записей
+     * @return Предикат, истинный только при выполнении всех условий
+     */
+    public static <T> Predicate<T> allOf(List<? extends Predicate<T>> filters) {
+        if (filters.isEmpty()) {
+            return item -> true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Predicate<T>[] predicates = filters.toArray(new Predicate[0]);
+
+        return item -> {
+            for (Predicate<T> predicate : predicates) {
+                if (!predicate.test(item)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.api.cargosimpleclient.Filters;
+
+/**
+ * Перечисление операторов сравнения расширенного фильтра.
+ * <p>
+ * Каждый оператор связан с подписью, отображаемой
+ * в диалогах расширенной фильтрации.
+ */
+public enum FilterOperator {
+    CONTAINS("Содержит"),
+    EQUALS("Равно"),
+    GREATER("Больше"),
+    LESS("Меньше"),
+    GREATER_OR_EQUAL("Больше или равно"),
+    LESS_OR_EQUAL("Меньше или равно");
+
+    private final String label;
+
+    FilterOperator(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return Подпись оператора в интерфейсе
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Поиск оператора по подписи.
+     *
+     * @param label Подпись оператора
+     * @return Оператор сравнения
+     * @throws IllegalArgumentException если оператор не найден
+     */
+    public static FilterOperator fromLabel(String label) {
+        for (FilterOperator operator : values()) {
+            if (operator.label.equals(label)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное условие фильтрации: " + label);
+    }
+
+    /**
+     * Интерпретация результата сравнения (compareTo) для оператора.
+     *
+     * @param comparison Результат сравнения значения поля со значением фильтра
+     * @return true, если условие выполняется
+     */
+    public boolean test(int comparison) {
+        return switch (this) {
+            case GREATER -> comparison > 0;
+            case LESS -> comparison < 0;
+            case GREATER_OR_EQUAL -> comparison >= 0;
+            case LESS_OR_EQUAL -> comparison <= 0;
+            case EQUALS -> comparison == 0;
+            case CONTAINS -> false;
+        };
+    }
+}
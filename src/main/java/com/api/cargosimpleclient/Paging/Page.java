@@ -0,0 +1,13 @@
+package com.api.cargosimpleclient.Paging;
+
+import java.util.List;
+
+/**
+ * Страница данных, полученная с сервера.
+ *
+ * @param content Записи страницы
+ * @param totalElements Общее количество записей на сервере
+ * @param <T> Тип записей
+ */
+record Page<T>(List<T> content, long totalElements) {
+}
@@ -0,0 +1,156 @@
+package com.api.cargosimpleclient.Paging;
+
+import com.api.cargosimpleclient.Services.ApiGatewayService;
+import com.api.cargosimpleclient.Services.CodecService;
+import com.api.cargosimpleclient.Services.ResponseCacheService;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Источник данных с постраничной загрузкой с сервера.
+ * <p>
+ * Поддержка постраничной выдачи определяется первым запросом
+ * с параметрами page и size:
+ * - Ответ в формате страницы Spring Data ({@code content}, {@code totalElements})
+ *   означает, что сервер отдает данные постранично
+ * - Ответ в виде JSON-массива означает, что сервер параметры игнорирует,
+ *   и этот же ответ разбирается как полная выдача; для такого пути
+ *   последующие загрузки выполняются без пробного запроса
+ * <p>
+ * Постраничный режим включается только для наборов больше порога
+ * {@value #THRESHOLD_PROPERTY}. Меньшие наборы загружаются целиком,
+ * а отображаемые строки ограничивает виртуализация {@code TableView}.
+ * Полная выдача запрашивается через {@link ResponseCacheService},
+ * который запоминает валидаторы ответа для последующих условных обновлений.
+ *
+ * @param <T> Тип записей
+ */
+public class PagedDataSource<T> {
+
+    private static final String PAGE_SIZE_PROPERTY = "cargo.paging.page.size";
+    private static final String MAX_PAGES_PROPERTY = "cargo.paging.max.pages";
+    private static final String THRESHOLD_PROPERTY = "cargo.paging.threshold";
+
+    private static final int PAGE_SIZE = Integer.getInteger(PAGE_SIZE_PROPERTY, 500);
+    private static final int MAX_CACHED_PAGES = Integer.getInteger(MAX_PAGES_PROPERTY, 20);
+    private static final long PAGING_THRESHOLD = Long.getLong(THRESHOLD_PROPERTY, 100_000);
+
+    private static final int PROBE_LIMIT = 1024;
+    private static final int SMILE_HEADER_LENGTH = 4;
+    private static final int SMILE_START_OBJECT = 0xFA;
+
+    /**
+     * Пути, сервер которых отдает список без разбиения на страницы.
+     */
+    private static final Set<String> NON_PAGED_PATHS = ConcurrentHashMap.newKeySet();
+
+    private final String path;
+    private final Class<T> type;
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+    private final CodecService codecService = new CodecService();
+    private final ResponseCacheService responseCacheService = new ResponseCacheService();
+
+    /**
+     * @param path Путь к списку относительно адреса сервера, например "/api/products"
+     * @param type Класс записей
+     */
+    public PagedDataSource(String path, Class<T> type) {
+        this.path = path;
+        this.type = type;
+    }
+
+    /**
+     * Открытие источника данных.
+     * <p>
+     * Выполняет блокирующие сетевые запросы, поэтому не должен
+     * вызываться из JavaFX Application Thread.
+     *
+     * @param consumer Обработчик записей при полной загрузке
+     * @return Виртуальный список для постраничного режима;
+     *         null, если все записи переданы обработчику
+     */
+    public PagedList<T> open(Consumer<? super T> consumer) throws IOException, InterruptedException {
+        if (NON_PAGED_PATHS.contains(path)) {
+            responseCacheService.readEach(path, type, consumer);
+            return null;
+        }
+
+        Page<T> firstPage;
+        try (InputStream body = new BufferedInputStream(apiGatewayService.getStream(pageUri(0)))) {
+            if (!startsWithObject(body)) {
+                NON_PAGED_PATHS.add(path);
+                codecService.readEach(body, type, consumer);
+                return null;
+            }
+            firstPage = readPage(body);
+        }
+
+        if (firstPage.totalElements() <= PAGING_THRESHOLD) {
+            responseCacheService.readEach(path, type, consumer);
+            return null;
+        }
+
+        return new PagedList<>(this, firstPage);
+    }
+
+    /**
+     * Загрузка страницы.
+     *
+     * @param page Номер страницы, начиная с 0
+     * @return Страница данных
+     */
+    Page<T> fetchPage(int page) throws IOException, InterruptedException {
+        try (InputStream body = apiGatewayService.getStream(pageUri(page))) {
+            return readPage(body);
+        }
+    }
+
+    int pageSize() {
+        return PAGE_SIZE;
+    }
+
+    int maxCachedPages() {
+        return MAX_CACHED_PAGES;
+    }
+
+    private Page<T> readPage(InputStream body) throws IOException {
+        JsonNode root = CodecService.readTree(body);
+        List<T> content = CodecService.listReader(type).readValue(root.path("content"));
+        return new Page<>(content, root.path("totalElements").asLong(content.size()));
+    }
+
+    private String pageUri(int page) {
+        String separator = path.contains("?") ? "&" : "?";
+        return path + separator + "page=" + page + "&size=" + PAGE_SIZE;
+    }
+
+    private static boolean startsWithObject(InputStream body) throws IOException {
+        body.mark(PROBE_LIMIT);
+        try {
+            if (CodecService.isSmile(body)) {
+                body.skipNBytes(SMILE_HEADER_LENGTH);
+                return body.read() == SMILE_START_OBJECT;
+            }
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int next = body.read();
+                if (next == -1) {
+                    return false;
+                }
+                if (!Character.isWhitespace(next)) {
+                    return next == '{';
+                }
+            }
+            return false;
+        } finally {
+            body.reset();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.api.cargosimpleclient.Paging;
+
+import com.api.cargosimpleclient.Services.BackgroundTaskService;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Виртуальный список, страницы которого загружаются по мере обращения.
+ * <p>
+ * Размер списка равен общему количеству записей на сервере, но в памяти
+ * хранится только ограниченное окно страниц с вытеснением давно
+ * неиспользуемых (LRU). Обращение к незагруженной записи возвращает null
+ * и запускает загрузку ее страницы; при обращении к странице заранее
+ * загружается следующая. После получения страницы список сообщает
+ * о замене соответствующих записей, и таблица перерисовывает строки.
+ * <p>
+ * Используется только из JavaFX Application Thread.
+ *
+ * @param <T> Тип записей
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    private final PagedDataSource<T> source;
+    private final int pageSize;
+    private final int size;
+
+    private final Map<Integer, List<T>> pages;
+    private final Map<Integer, Future<Page<T>>> loading = new HashMap<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+
+    private final BackgroundTaskService backgroundTaskService = BackgroundTaskService.forView();
+
+    private Consumer<Throwable> onLoadFailed = _ -> {};
+
+    PagedList(PagedDataSource<T> source, Page<T> firstPage) {
+        this.source = source;
+        this.pageSize = source.pageSize();
+        this.size = (int) Math.min(Integer.MAX_VALUE, firstPage.totalElements());
+
+        int maxCachedPages = Math.max(2, source.maxCachedPages());
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        pages.put(0, firstPage.content());
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+
+        int page = index / pageSize;
+        prefetch(page + 1);
+
+        List<T> items = pages.get(page);
+        if (items == null) {
+            requestPage(page);
+            return null;
+        }
+
+        int offset = index % pageSize;
+        return offset < items.size() ? items.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Установка обработчика ошибки загрузки страницы.
+     * <p>
+     * Страница, загрузка которой завершилась ошибкой, повторно
+     * не запрашивается до перезагрузки списка.
+     *
+     * @param onLoadFailed Обработчик ошибки, вызывается в JavaFX Application Thread
+     */
+    public void setOnLoadFailed(Consumer<Throwable> onLoadFailed) {
+        this.onLoadFailed = onLoadFailed;
+    }
+
+    private void prefetch(int page) {
+        if ((long) page * pageSize < size && !pages.containsKey(page)) {
+            requestPage(page);
+        }
+    }
+
+    private void requestPage(int page) {
+        Future<Page<T>> pending = loading.get(page);
+        if (pending != null && !pending.isDone() || failedPages.contains(page)) {
+            return;
+        }
+
+        loading.put(page, backgroundTaskService.submit(
+                () -> source.fetchPage(page),
+                result -> applyPage(page, result),
+                throwable -> {
+                    loading.remove(page);
+                    failedPages.add(page);
+                    onLoadFailed.accept(throwable);
+                }
+        ));
+    }
+
+    private void applyPage(int page, Page<T> result) {
+        loading.remove(page);
+        pages.put(page, result.content());
+
+        int from = page * pageSize;
+        int to = Math.min(from + result.content().size(), size);
+        if (from >= to) {
+            return;
+        }
+
+        beginChange();
+        nextReplace(from, to, Collections.nCopies(to - from, null));
+        endChange();
+    }
+}
@@ -0,0 +1,449 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Единый HTTP-шлюз приложения для обращения к REST API сервера.
+ * <p>
+ * Владеет одним экземпляром {@link HttpClient} на всё приложение:
+ * - Повторное использование keep-alive соединений между запросами
+ * - Настраиваемый пул потоков клиента
+ * - Таймауты, заданные отдельно для каждого endpoint
+ * - Учет повторно использованных соединений
+ * - Объединение одинаковых одновременных GET-запросов небольших ответов
+ * - Сжатие потоковых ответов (gzip, deflate) с учетом объема по endpoint
+ * - Запрос бинарного формата Smile для больших списков с откатом на JSON
+ * <p>
+ * Состояние шлюза статическое, поэтому каждый контроллер может
+ * создавать собственный экземпляр сервиса, не создавая новый клиент.
+ */
+public class ApiGatewayService {
+
+    public static final String BASE_URL = "http://localhost:8081";
+
+    private static final String EXECUTOR_THREADS_PROPERTY = "cargo.http.executor.threads";
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String COMPRESSION_PROPERTY = "cargo.http.compression";
+
+    private static final String BINARY_PROPERTY = "cargo.http.binary";
+
+    private static final boolean COMPRESSION_ENABLED =
+            Boolean.parseBoolean(System.getProperty(COMPRESSION_PROPERTY, "true"));
+    private static final boolean BINARY_ENABLED =
+            Boolean.parseBoolean(System.getProperty(BINARY_PROPERTY, "true"));
+
+    /**
+     * Endpoint списков, для которых запрашивается бинарный формат Smile.
+     */
+    private static final Set<String> BINARY_ENDPOINTS = Set.of("/api/products", "/api/warehouse-stocks");
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final Map<String, Duration> ENDPOINT_TIMEOUTS = new ConcurrentHashMap<>(Map.of(
+            "/api/products", Duration.ofSeconds(60),
+            "/api/warehouses", Duration.ofSeconds(30),
+            "/api/warehouse-stocks", Duration.ofSeconds(60)
+    ));
+
+    private static final ExecutorService EXECUTOR;
+    private static final HttpClient CLIENT;
+
+    private static final AtomicLong TOTAL_REQUESTS = new AtomicLong();
+    private static final AtomicLong CLOSED_BY_SERVER = new AtomicLong();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK_IN_FLIGHT = new AtomicInteger();
+
+    private static final SingleFlight<byte[]> GET_FLIGHT = new SingleFlight<>();
+
+    private static final Map<String, TransferCounter> TRANSFERS = new ConcurrentHashMap<>();
+
+    static {
+        if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, "300");
+        }
+
+        int threads = Integer.getInteger(EXECUTOR_THREADS_PROPERTY, 4);
+        EXECUTOR = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-gateway-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CLIENT = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(EXECUTOR)
+                .build();
+    }
+
+    /**
+     * Выполняет GET-запрос и открывает поток тела успешного ответа.
+     * <p>
+     * Тело не буферизуется целиком в памяти и может разбираться
+     * по мере получения. Сжатое сервером тело распаковывается
+     * потоково. Поток должен быть закрыт вызывающей стороной.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @return Поток тела ответа
+     * @throws ApiResponseException При коде ответа, отличном от 200
+     */
+    public InputStream getStream(String path) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(newStreamRequest(path).build(), decodingBodyHandler(path));
+        requireStatus(response, 200);
+        return response.body();
+    }
+
+    /**
+     * Выполняет GET-запрос с объединением одинаковых одновременных запросов.
+     * <p>
+     * Одновременные запросы к одному пути отправляются один раз:
+     * распакованное тело ответа читается в память, и каждый вызов
+     * получает собственный поток по общему массиву. Подходит для
+     * небольших ответов, которые могут запрашиваться одновременно
+     * из нескольких мест, например остатков отдельных товаров; большие
+     * списки читаются через {@link #getStream(String)}.
+     *
+     * @param path Путь относительно {@link #BASE_URL}, включая параметры запроса
+     * @return Поток тела ответа
+     * @throws ApiResponseException При коде ответа, отличном от 200
+     */
+    public InputStream getStreamShared(String path) throws IOException, InterruptedException {
+        byte[] body = GET_FLIGHT.execute(path, () -> {
+            try (InputStream in = getStream(path)) {
+                return in.readAllBytes();
+            }
+        });
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * Открывает поток событий сервера (text/event-stream).
+     * <p>
+     * Таймаут endpoint ограничивает только ожидание заголовков
+     * ответа; тело читается, пока соединение не будет закрыто.
+     * Поток должен быть закрыт вызывающей стороной.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @return Поток тела ответа
+     * @throws ApiResponseException При коде ответа, отличном от 200
+     */
+    public InputStream getEventStream(String path) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(newRequest(path)
+                .GET()
+                .header("Accept", EventStreamService.MEDIA_TYPE)
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        requireStatus(response, 200);
+        return response.body();
+    }
+
+    /**
+     * Выполняет условный GET-запрос с валидаторами ранее полученного ответа.
+     * <p>
+     * Отсутствующие валидаторы не передаются. Тело ответа 200 не буферизуется
+     * и должно быть закрыто вызывающей стороной.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @param etag Значение ETag для заголовка If-None-Match или null
+     * @param lastModified Значение Last-Modified для заголовка If-Modified-Since или null
+     * @return Ответ 200 с потоком тела или 304, если данные не изменились
+     * @throws ApiResponseException При коде ответа, отличном от 200 и 304
+     */
+    public HttpResponse<InputStream> getConditional(String path, String etag, String lastModified)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = newStreamRequest(path);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<InputStream> response = send(builder.build(), decodingBodyHandler(path));
+        requireStatus(response, 200, 304);
+        return response;
+    }
+
+    /**
+     * Выполняет синхронный POST-запрос с JSON-телом.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @param json Тело запроса в формате JSON
+     * @return Ответ сервера с телом в виде строки
+     */
+    public HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return send(newRequest(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    /**
+     * Выполняет синхронный PUT-запрос с JSON-телом.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @param json Тело запроса в формате JSON
+     * @return Ответ сервера с телом в виде строки
+     */
+    public HttpResponse<String> put(String path, String json) throws IOException, InterruptedException {
+        return send(newRequest(path)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    /**
+     * Выполняет синхронный DELETE-запрос.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @return Ответ сервера с телом в виде строки
+     */
+    public HttpResponse<String> delete(String path) throws IOException, InterruptedException {
+        return send(newRequest(path).DELETE().build());
+    }
+
+    /**
+     * Выполняет асинхронный POST-запрос с JSON-телом.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @param json Тело запроса в формате JSON
+     * @return CompletableFuture с ответом сервера
+     */
+    public CompletableFuture<HttpResponse<String>> postAsync(String path, String json) {
+        return sendAsync(newRequest(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    /**
+     * Асинхронная отправка произвольного запроса через общий клиент.
+     *
+     * @param request Подготовленный запрос
+     * @return CompletableFuture с ответом сервера
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        beforeSend();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, throwable) -> afterSend(response));
+    }
+
+    /**
+     * Создание построителя запроса с адресом и таймаутом для endpoint.
+     *
+     * @param path Путь относительно {@link #BASE_URL}
+     * @return Построитель запроса
+     */
+    public HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + path))
+                .timeout(timeoutFor(path));
+    }
+
+    /**
+     * Переопределение таймаута запросов для endpoint.
+     *
+     * @param pathPrefix Префикс пути, например "/api/products"
+     * @param timeout Таймаут запроса
+     */
+    public static void setEndpointTimeout(String pathPrefix, Duration timeout) {
+        ENDPOINT_TIMEOUTS.put(pathPrefix, timeout);
+    }
+
+    /**
+     * Получение статистики использования соединений.
+     * <p>
+     * {@link HttpClient} не раскрывает состояние пула, поэтому число
+     * открытых соединений оценивается как пиковое число одновременных
+     * запросов плюс соединения, закрытые сервером (Connection: close).
+     *
+     * @return Снимок статистики соединений
+     */
+    public static ConnectionStats getConnectionStats() {
+        long total = TOTAL_REQUESTS.get();
+        long opened = Math.min(total, PEAK_IN_FLIGHT.get() + CLOSED_BY_SERVER.get());
+        return new ConnectionStats(total, opened, total - opened);
+    }
+
+    /**
+     * Получение статистики объединения одинаковых GET-запросов.
+     *
+     * @return Число отправленных запросов и вызовов, получивших общий ответ
+     */
+    public static SingleFlight.Stats getCoalescingStats() {
+        return GET_FLIGHT.getStats();
+    }
+
+    /**
+     * Получение объема данных, полученных потоковыми GET-запросами.
+     * <p>
+     * Endpoint определяется путем запроса без параметров
+     * и идентификаторов записей.
+     *
+     * @return Снимок статистики по endpoint
+     */
+    public static Map<String, TransferStats> getTransferStats() {
+        Map<String, TransferStats> stats = new TreeMap<>();
+        TRANSFERS.forEach((endpoint, counter) -> stats.put(endpoint, counter.snapshot()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Снимок статистики соединений общего клиента.
+     *
+     * @param totalRequests Всего отправлено запросов
+     * @param openedConnections Оценка числа открытых соединений
+     * @param reusedConnections Оценка числа запросов, обслуженных повторно использованным соединением
+     */
+    public record ConnectionStats(long totalRequests, long openedConnections, long reusedConnections) {
+    }
+
+    /**
+     * Снимок объема данных endpoint.
+     *
+     * @param responses Количество прочитанных ответов
+     * @param compressedBytes Получено из сети, байт
+     * @param uncompressedBytes Получено после распаковки, байт
+     */
+    public record TransferStats(long responses, long compressedBytes, long uncompressedBytes) {
+    }
+
+    /**
+     * Накопительный счетчик объема данных endpoint.
+     */
+    static class TransferCounter {
+
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong compressedBytes = new AtomicLong();
+        private final AtomicLong uncompressedBytes = new AtomicLong();
+
+        void record(long compressed, long uncompressed) {
+            responses.incrementAndGet();
+            compressedBytes.addAndGet(compressed);
+            uncompressedBytes.addAndGet(uncompressed);
+        }
+
+        TransferStats snapshot() {
+            return new TransferStats(responses.get(), compressedBytes.get(), uncompressedBytes.get());
+        }
+    }
+
+    private HttpRequest.Builder newStreamRequest(String path) {
+        HttpRequest.Builder builder = newRequest(path).GET();
+        if (COMPRESSION_ENABLED) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
+        if (BINARY_ENABLED && BINARY_ENDPOINTS.contains(endpointOf(path))) {
+            builder.header("Accept", CodecService.SMILE_MEDIA_TYPE + ", " + CodecService.JSON_MEDIA_TYPE + ";q=0.9");
+        }
+        return builder;
+    }
+
+    /**
+     * Обработчик тела, распаковывающий ответ по заголовку Content-Encoding.
+     * {@link java.net.http.HttpClient} сжатие не поддерживает, поэтому
+     * распаковка выполняется при чтении потока вызывающей стороной.
+     */
+    private static HttpResponse.BodyHandler<InputStream> decodingBodyHandler(String path) {
+        String endpoint = endpointOf(path);
+        return responseInfo -> {
+            String encoding = responseInfo.headers()
+                    .firstValue("Content-Encoding")
+                    .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                    .filter(value -> !value.isEmpty())
+                    .orElse("identity");
+            TransferCounter counter = TRANSFERS.computeIfAbsent(endpoint, _ -> new TransferCounter());
+
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofInputStream(),
+                    body -> new DecodingInputStream(body, encoding, counter)
+            );
+        };
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        beforeSend();
+        HttpResponse<T> response = null;
+        try {
+            response = CLIENT.send(request, bodyHandler);
+            return response;
+        } finally {
+            afterSend(response);
+        }
+    }
+
+    private static void requireStatus(HttpResponse<InputStream> response, int... expected) throws IOException {
+        for (int statusCode : expected) {
+            if (response.statusCode() == statusCode) {
+                return;
+            }
+        }
+
+        try (InputStream body = response.body()) {
+            throw new ApiResponseException(response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void beforeSend() {
+        TOTAL_REQUESTS.incrementAndGet();
+        PEAK_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+    }
+
+    private static void afterSend(HttpResponse<?> response) {
+        IN_FLIGHT.decrementAndGet();
+        if (response != null && response.headers()
+                .firstValue("Connection")
+                .map("close"::equalsIgnoreCase)
+                .orElse(false)) {
+            CLOSED_BY_SERVER.incrementAndGet();
+        }
+    }
+
+    /**
+     * Endpoint запроса: путь без параметров, в котором идентификаторы
+     * заменены на {id}, чтобы запросы отдельных записей учитывались вместе.
+     */
+    private static String endpointOf(String path) {
+        int query = path.indexOf('?');
+        String endpoint = query < 0 ? path : path.substring(0, query);
+        return endpoint.replaceAll("/\\d+(?=/|$)", "/{id}");
+    }
+
+    private static Duration timeoutFor(String path) {
+        Duration timeout = DEFAULT_REQUEST_TIMEOUT;
+        int longestPrefix = -1;
+        for (Map.Entry<String, Duration> entry : ENDPOINT_TIMEOUTS.entrySet()) {
+            String prefix = entry.getKey();
+            if (path.startsWith(prefix) && prefix.length() > longestPrefix) {
+                longestPrefix = prefix.length();
+                timeout = entry.getValue();
+            }
+        }
+        return timeout;
+    }
+}
@@ -0,0 +1,30 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.IOException;
+
+/**
+ * Исключение для неуспешного ответа сервера.
+ * <p>
+ * Позволяет отличать ответ сервера с кодом ошибки
+ * от ошибок сети при асинхронной загрузке данных.
+ */
+public class ApiResponseException extends IOException {
+
+    private final int statusCode;
+
+    /**
+     * @param statusCode HTTP-код ответа сервера
+     * @param message Текст сообщения об ошибке
+     */
+    public ApiResponseException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return HTTP-код ответа сервера
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
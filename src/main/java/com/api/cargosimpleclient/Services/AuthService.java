@@ -2,28 +2,36 @@ package com.api.cargosimpleclient.Services;
 
 import com.api.cargosimpleclient.DTO.LoginRequestDto;
 import com.api.cargosimpleclient.DTO.UserDto;
-import com.google.gson.Gson;
-import okhttp3.*;
-import org.jetbrains.annotations.NotNull;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
 
-
-import java.io.IOException;
-import java.util.HashMap;
+import java.net.http.HttpResponse;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Сервис аутентификации и регистрации пользователей.
  * <p>
  * Предоставляет методы для выполнения операций входа и регистрации
  * с использованием HTTP-запросов к серверу аутентификации.
+ * Запросы выполняются асинхронно через общий {@link ApiGatewayService},
+ * а JSON обрабатывается общим {@link CodecService}.
  *
  */
 public class AuthService {
 
-    private static final String BASE_URL = "http://localhost:8081/api/auth";
-    private static final OkHttpClient CLIENT = new OkHttpClient();
-    private static final Gson GSON = new Gson();
+    private static final String AUTH_PATH = "/api/auth";
+
+    /**
+     * Читатель данных пользователя, допускающий дополнительные поля в ответе сервера.
+     */
+    private static final ObjectReader USER_READER = CodecService.reader(UserDto.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+    private final CodecService codecService = new CodecService();
 
     /**
      * Выполняет аутентификацию пользователя.
@@ -33,48 +41,8 @@ public class AuthService {
      * @return CompletableFuture с данными пользователя после успешной аутентификации
      */
     public CompletableFuture<UserDto> login(String login, String password) {
-
-        CompletableFuture<UserDto> future = new CompletableFuture<>();
-
         LoginRequestDto loginRequest = new LoginRequestDto(login, password);
-
-        String jsonBody = GSON.toJson(loginRequest);
-
-        RequestBody body = RequestBody.create(
-                jsonBody,
-                MediaType.parse("application/json")
-        );
-
-        Request request = new Request.Builder()
-                .url(BASE_URL + "/login")
-                .post(body)
-                .build();
-
-        CLIENT.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onResponse(@NotNull Call call, @NotNull Response response) throws IOException {
-                if (response.isSuccessful()) {
-
-                    assert response.body() != null;
-                    String responseBody = response.body().string();
-
-                    UserDto user = GSON.fromJson(responseBody, UserDto.class);
-
-                    future.complete(user);
-                } else {
-                    future.completeExceptionally(
-                            new Exception("Ошибка входа: " + response.message())
-                    );
-                }
-            }
-
-            @Override
-            public void onFailure(@NotNull Call call, @NotNull IOException e) {
-                future.completeExceptionally(e);
-            }
-        });
-
-        return future;
+        return postForUser(AUTH_PATH + "/login", loginRequest, "Ошибка входа");
     }
 
     /**
@@ -85,46 +53,37 @@ public class AuthService {
      * @return CompletableFuture с данными зарегистрированного пользователя
      */
     public CompletableFuture<UserDto> register(UserDto user, String password) {
-
-        CompletableFuture<UserDto> future = new CompletableFuture<>();
-
-        Map<String, Object> registrationData = new HashMap<>();
-        registrationData.put("login", user.getLogin());
-        registrationData.put("password", password);
-
-        String jsonBody = GSON.toJson(registrationData);
-
-        RequestBody body = RequestBody.create(
-                jsonBody,
-                MediaType.parse("application/json")
+        Map<String, Object> registrationData = Map.of(
+                "login", user.getLogin(),
+                "password", password
         );
+        return postForUser(AUTH_PATH + "/register", registrationData, "Ошибка регистрации");
+    }
 
-        Request request = new Request.Builder()
-                .url(BASE_URL + "/register")
-                .post(body)
-                .build();
-
-        CLIENT.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onResponse(@NotNull Call call, @NotNull Response response) throws IOException {
-                if (response.isSuccessful()) {
-                    assert response.body() != null;
-                    String responseBody = response.body().string();
-                    UserDto registeredUser = GSON.fromJson(responseBody, UserDto.class);
-                    future.complete(registeredUser);
-                } else {
-                    future.completeExceptionally(
-                            new Exception("Ошибка регистрации: " + response.message())
-                    );
-                }
-            }
+    private CompletableFuture<UserDto> postForUser(String path, Object body, String errorPrefix) {
+        String jsonBody;
+        try {
+            jsonBody = codecService.write(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            @Override
-            public void onFailure(@NotNull Call call, @NotNull IOException e) {
-                future.completeExceptionally(e);
-            }
-        });
+        return apiGatewayService.postAsync(path, jsonBody)
+                .thenApply(response -> readUser(response, errorPrefix));
+    }
 
-        return future;
+    private static UserDto readUser(HttpResponse<String> response, String errorPrefix) {
+        int statusCode = response.statusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new CompletionException(
+                    new ApiResponseException(statusCode, errorPrefix + ": код ответа " + statusCode)
+            );
+        }
+
+        try {
+            return USER_READER.readValue(response.body());
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
     }
 }
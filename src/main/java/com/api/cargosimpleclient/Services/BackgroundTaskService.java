@@ -0,0 +1,178 @@
+package com.api.cargosimpleclient.Services;
+
+import javafx.application.Platform;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Сервис фоновой загрузки данных.
+ * <p>
+ * Выполняет сетевые операции и разбор ответов на виртуальных потоках,
+ * возвращаясь в JavaFX Application Thread только для применения результата.
+ * <p>
+ * Задачи разделены по владельцам:
+ * - Задачи отображаемой страницы запускаются через общий сервис
+ *   {@link #forView()} и отменяются при уходе со страницы
+ *   ({@link #cancelViewTasks()})
+ * - Задачи владельцев данных, которые переживают уход со страницы
+ *   (хранилищ, их обновлений и загрузки остатков), запускаются через
+ *   собственный экземпляр сервиса и отменяются самим владельцем
+ *   либо при выходе пользователя ({@link #cancelAll()})
+ */
+public class BackgroundTaskService {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final Set<BackgroundTask<?>> IN_FLIGHT = ConcurrentHashMap.newKeySet();
+
+    private static final BackgroundTaskService VIEW_TASKS = new BackgroundTaskService();
+
+    /**
+     * Сервис для задач отображаемой страницы, например загрузки
+     * страниц виртуального списка, видимых в таблице.
+     *
+     * @return Общий сервис задач страницы
+     */
+    public static BackgroundTaskService forView() {
+        return VIEW_TASKS;
+    }
+
+    /**
+     * Запуск задачи в фоновом виртуальном потоке.
+     * <p>
+     * Задача, завершившаяся {@link CancellationException}, считается
+     * отмененной, и обработчики результата и ошибки не вызываются.
+     *
+     * @param work Работа, выполняемая вне JavaFX Application Thread
+     * @param onSuccess Обработчик результата, вызывается в JavaFX Application Thread
+     * @param onFailure Обработчик ошибки, вызывается в JavaFX Application Thread
+     * @param <T> Тип результата
+     * @return Задача, которую можно отменить
+     */
+    public <T> Future<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return submit(work, onSuccess, onFailure, () -> {});
+    }
+
+    /**
+     * Запуск задачи в фоновом виртуальном потоке с обработчиком отмены.
+     * <p>
+     * Обработчик отмены нужен владельцам данных, которые должны
+     * вернуться в исходное состояние, если их загрузка была прервана
+     * {@link #cancelAll()}.
+     *
+     * @param work Работа, выполняемая вне JavaFX Application Thread
+     * @param onSuccess Обработчик результата, вызывается в JavaFX Application Thread
+     * @param onFailure Обработчик ошибки, вызывается в JavaFX Application Thread
+     * @param onCancelled Обработчик отмены, вызывается в JavaFX Application Thread
+     * @param <T> Тип результата
+     * @return Задача, которую можно отменить
+     */
+    public <T> Future<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure,
+                                Runnable onCancelled) {
+        BackgroundTask<T> task = new BackgroundTask<>(this, work, onSuccess, onFailure, onCancelled);
+        IN_FLIGHT.add(task);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Отмена незавершенных задач отображаемой страницы при уходе с нее.
+     * <p>
+     * Задачи хранилищ не отменяются: их загрузки и обновления
+     * продолжаются и используются следующей страницей.
+     */
+    public static void cancelViewTasks() {
+        for (BackgroundTask<?> task : IN_FLIGHT) {
+            if (task.owner == VIEW_TASKS) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Отмена всех незавершенных фоновых задач, например при выходе
+     * пользователя.
+     * <p>
+     * Результаты отмененных задач не применяются к интерфейсу,
+     * даже если задача успела завершиться.
+     */
+    public static void cancelAll() {
+        for (BackgroundTask<?> task : IN_FLIGHT) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Фоновая задача с доставкой результата в JavaFX Application Thread.
+     *
+     * @param <T> Тип результата
+     */
+    private static final class BackgroundTask<T> extends FutureTask<T> {
+
+        private final BackgroundTaskService owner;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Throwable> onFailure;
+        private final Runnable onCancelled;
+
+        private volatile boolean discarded;
+
+        private BackgroundTask(BackgroundTaskService owner, Callable<T> work, Consumer<T> onSuccess,
+                               Consumer<Throwable> onFailure, Runnable onCancelled) {
+            super(work);
+            this.owner = owner;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+            this.onCancelled = onCancelled;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            discarded = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            IN_FLIGHT.remove(this);
+
+            if (discarded || isCancelled()) {
+                Platform.runLater(onCancelled);
+                return;
+            }
+
+            try {
+                T result = get();
+                Platform.runLater(() -> {
+                    if (discarded) {
+                        onCancelled.run();
+                    } else {
+                        onSuccess.accept(result);
+                    }
+                });
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    Platform.runLater(onCancelled);
+                    return;
+                }
+                Platform.runLater(() -> {
+                    if (discarded) {
+                        onCancelled.run();
+                    } else {
+                        onFailure.accept(e.getCause());
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.api.cargosimpleclient.Services;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Пакетное добавление элементов в наблюдаемый список по мере их получения.
+ * <p>
+ * Фоновый поток передает элементы через {@link #offer(Object)}, а
+ * JavaFX Application Thread забирает накопленные элементы один раз за
+ * кадр (pulse) и добавляет их в список одним вызовом addAll. Таблица
+ * заполняется частями еще до окончания загрузки, а число событий
+ * изменения списка не зависит от числа элементов.
+ *
+ * @param <T> Тип элементов списка
+ */
+public class BatchingListAppender<T> {
+
+    private static final int MAX_BATCH_SIZE = 2000;
+
+    private final ObservableList<T> target;
+    private final LongConsumer onProgress;
+
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong received = new AtomicLong();
+
+    private volatile boolean cancelled;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush(MAX_BATCH_SIZE);
+        }
+    };
+
+    /**
+     * @param target Список, в который добавляются элементы
+     * @param onProgress Обработчик числа полученных элементов, вызывается в JavaFX Application Thread
+     */
+    public BatchingListAppender(ObservableList<T> target, LongConsumer onProgress) {
+        this.target = target;
+        this.onProgress = onProgress;
+    }
+
+    /**
+     * Запуск добавления элементов по кадрам.
+     * <p>
+     * Вызывается из JavaFX Application Thread.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Передача полученного элемента.
+     * <p>
+     * Может вызываться из любого потока.
+     *
+     * @param item Полученный элемент
+     * @throws CancellationException если добавление отменено
+     */
+    public void offer(T item) {
+        if (cancelled) {
+            throw new CancellationException("Загрузка отменена");
+        }
+        pending.add(item);
+        received.incrementAndGet();
+    }
+
+    /**
+     * Завершение загрузки с добавлением оставшихся элементов.
+     * <p>
+     * Вызывается из JavaFX Application Thread.
+     */
+    public void finish() {
+        timer.stop();
+        flush(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Отмена загрузки без добавления оставшихся элементов.
+     * <p>
+     * Последующие вызовы {@link #offer(Object)} прерывают чтение ответа.
+     */
+    public void cancel() {
+        cancelled = true;
+        timer.stop();
+        pending.clear();
+    }
+
+    private void flush(int maxBatchSize) {
+        if (cancelled || pending.isEmpty()) {
+            return;
+        }
+
+        List<T> batch = new ArrayList<>(Math.min(maxBatchSize, MAX_BATCH_SIZE));
+        T item;
+        while (batch.size() < maxBatchSize && (item = pending.poll()) != null) {
+            batch.add(item);
+        }
+
+        target.addAll(batch);
+        onProgress.accept(received.get());
+    }
+}
@@ -0,0 +1,345 @@
+package com.api.cargosimpleclient.Services;
+
+import com.api.cargosimpleclient.DTO.ProductDTO;
+import com.api.cargosimpleclient.DTO.WarehouseDTO;
+import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Сервис сериализации и десериализации DTO в JSON.
+ * <p>
+ * Владеет единственным настроенным {@link ObjectMapper} на всё приложение
+ * и кэширует типизированные {@link ObjectReader} и {@link ObjectWriter}:
+ * - Чтение отдельных DTO и их списков
+ * - Запись DTO целиком (обновление)
+ * - Запись DTO без идентификатора и пустых полей (создание)
+ * - Потоковое чтение списков в JSON или бинарном формате Smile
+ * - Потоковые генератор и разборщик Smile для локальных снимков
+ * - Канонизация повторяющихся строк (категория, производитель,
+ *   место хранения) через {@link StringPool}
+ * <p>
+ * Формат потокового ответа определяется по заголовку Smile в начале
+ * тела, поэтому сервер, не поддерживающий Smile, может отвечать JSON.
+ * <p>
+ * Читатели и писатели неизменяемы и потокобезопасны, поэтому кэши
+ * сериализаторов Jackson переиспользуются всеми контроллерами.
+ */
+public class CodecService {
+
+    private static final List<Class<?>> DTO_TYPES = List.of(
+            ProductDTO.class,
+            WarehouseDTO.class,
+            WarehouseInStockDTO.class
+    );
+
+    /**
+     * Тип содержимого JSON.
+     */
+    public static final String JSON_MEDIA_TYPE = "application/json";
+
+    /**
+     * Тип содержимого бинарного формата Jackson Smile.
+     */
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private static final ObjectMapper MAPPER = addPoolingMixIns(new ObjectMapper());
+    private static final ObjectMapper SMILE_MAPPER = addPoolingMixIns(new SmileMapper());
+
+    private static final ObjectMapper WITHOUT_ID_MAPPER = createWithoutIdMapper();
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> LIST_READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> WITHOUT_ID_WRITERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> SMILE_READERS = new ConcurrentHashMap<>();
+
+    private static final DecodeCounter JSON_DECODING = new DecodeCounter();
+    private static final DecodeCounter SMILE_DECODING = new DecodeCounter();
+
+    static {
+        for (Class<?> type : DTO_TYPES) {
+            reader(type);
+            listReader(type);
+            smileReader(type);
+            writer(type);
+            withoutIdWriter(type);
+        }
+    }
+
+    /**
+     * Чтение объекта из JSON.
+     *
+     * @param json Строка JSON
+     * @param type Класс объекта
+     * @param <T> Тип объекта
+     * @return Прочитанный объект
+     */
+    public <T> T read(String json, Class<T> type) throws JsonProcessingException {
+        return reader(type).readValue(json);
+    }
+
+    /**
+     * Чтение списка объектов из JSON-массива.
+     *
+     * @param json Строка JSON
+     * @param type Класс элементов списка
+     * @param <T> Тип элементов списка
+     * @return Прочитанный список
+     */
+    public <T> List<T> readList(String json, Class<T> type) throws JsonProcessingException {
+        return listReader(type).readValue(json);
+    }
+
+    /**
+     * Потоковое чтение массива JSON или Smile с передачей каждого элемента обработчику.
+     * <p>
+     * Элементы разбираются по одному по мере поступления данных,
+     * поэтому ни тело ответа, ни весь список не хранятся в памяти целиком.
+     * Поток закрывается после чтения.
+     *
+     * @param body Поток массива
+     * @param type Класс элементов массива
+     * @param consumer Обработчик элементов
+     * @param <T> Тип элементов массива
+     * @return Количество прочитанных элементов
+     */
+    public <T> long readEach(InputStream body, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        InputStream input = markable(body);
+        boolean smile = isSmile(input);
+        ObjectReader reader = smile ? smileReader(type) : reader(type);
+
+        long startNanos = System.nanoTime();
+        long count = 0;
+        try (MappingIterator<T> iterator = reader.readValues(input)) {
+            while (iterator.hasNextValue()) {
+                consumer.accept(iterator.nextValue());
+                count++;
+            }
+        } finally {
+            (smile ? SMILE_DECODING : JSON_DECODING).record(count, System.nanoTime() - startNanos);
+        }
+        return count;
+    }
+
+    /**
+     * Чтение дерева документа из потока в формате JSON или Smile.
+     * Поток закрывается после чтения.
+     *
+     * @param body Поток документа
+     * @return Корневой узел документа
+     */
+    public static JsonNode readTree(InputStream body) throws IOException {
+        try (InputStream input = markable(body)) {
+            return (isSmile(input) ? SMILE_MAPPER : MAPPER).readTree(input);
+        }
+    }
+
+    /**
+     * Создание потокового генератора Smile.
+     * <p>
+     * Объекты, записанные через {@link JsonGenerator#writeObject(Object)},
+     * сериализуются тем же настроенным преобразователем, что и ответы сервера.
+     *
+     * @param out Поток для записи; закрывается вместе с генератором
+     * @return Генератор Smile
+     */
+    public static JsonGenerator smileGenerator(OutputStream out) throws IOException {
+        return SMILE_MAPPER.getFactory().createGenerator(out);
+    }
+
+    /**
+     * Создание потокового разборщика Smile.
+     *
+     * @param body Поток документа; закрывается вместе с разборщиком
+     * @return Разборщик Smile
+     */
+    public static JsonParser smileParser(InputStream body) throws IOException {
+        return SMILE_MAPPER.getFactory().createParser(body);
+    }
+
+    /**
+     * Проверка, начинается ли поток с заголовка Smile.
+     * <p>
+     * Поток должен поддерживать {@link InputStream#mark(int)};
+     * позиция чтения не изменяется.
+     *
+     * @param body Поток документа
+     * @return true для Smile, false для JSON
+     */
+    public static boolean isSmile(InputStream body) throws IOException {
+        body.mark(SMILE_HEADER.length);
+        try {
+            for (byte expected : SMILE_HEADER) {
+                if (body.read() != expected) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            body.reset();
+        }
+    }
+
+    /**
+     * Запись объекта в JSON со всеми полями.
+     *
+     * @param value Объект для записи
+     * @return Строка JSON
+     */
+    public String write(Object value) throws JsonProcessingException {
+        return writer(value.getClass()).writeValueAsString(value);
+    }
+
+    /**
+     * Запись объекта в JSON без поля id и без пустых полей.
+     * <p>
+     * Используется при создании записей, идентификатор которых
+     * назначает сервер.
+     *
+     * @param value Объект для записи
+     * @return Строка JSON
+     */
+    public String writeWithoutId(Object value) throws JsonProcessingException {
+        return withoutIdWriter(value.getClass()).writeValueAsString(value);
+    }
+
+    /**
+     * Получение кэшированного читателя для типа.
+     *
+     * @param type Класс объекта
+     * @return Читатель объектов типа
+     */
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Получение кэшированного читателя списков для типа элементов.
+     *
+     * @param type Класс элементов списка
+     * @return Читатель списков
+     */
+    public static ObjectReader listReader(Class<?> type) {
+        return LIST_READERS.computeIfAbsent(type, elementType -> MAPPER.readerFor(
+                MAPPER.getTypeFactory().constructCollectionType(List.class, elementType)
+        ));
+    }
+
+    /**
+     * Получение статистики разбора потоковых ответов по форматам.
+     *
+     * @return Снимок статистики для JSON и Smile
+     */
+    public static Map<String, DecodeStats> getDecodeStats() {
+        return Map.of(
+                JSON_MEDIA_TYPE, JSON_DECODING.snapshot(),
+                SMILE_MEDIA_TYPE, SMILE_DECODING.snapshot()
+        );
+    }
+
+    /**
+     * Снимок статистики разбора в одном формате.
+     *
+     * @param items Разобрано записей
+     * @param nanos Затрачено на разбор и обработку записей, нс
+     */
+    public record DecodeStats(long items, long nanos) {
+    }
+
+    private static ObjectReader smileReader(Class<?> type) {
+        return SMILE_READERS.computeIfAbsent(type, SMILE_MAPPER::readerFor);
+    }
+
+    private static InputStream markable(InputStream body) {
+        return body.markSupported() ? body : new BufferedInputStream(body);
+    }
+
+    private static ObjectWriter writer(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    private static ObjectWriter withoutIdWriter(Class<?> type) {
+        return WITHOUT_ID_WRITERS.computeIfAbsent(type, WITHOUT_ID_MAPPER::writerFor);
+    }
+
+    private static ObjectMapper addPoolingMixIns(ObjectMapper mapper) {
+        mapper.addMixIn(ProductDTO.class, ProductPoolingMixIn.class);
+        mapper.addMixIn(WarehouseInStockDTO.class, WarehouseInStockPoolingMixIn.class);
+        return mapper;
+    }
+
+    private static ObjectMapper createWithoutIdMapper() {
+        ObjectMapper mapper = MAPPER.copy();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        for (Class<?> type : DTO_TYPES) {
+            mapper.addMixIn(type, WithoutIdMixIn.class);
+        }
+        return mapper;
+    }
+
+    /**
+     * Примесь Jackson, исключающая идентификатор из записываемого JSON.
+     */
+    @JsonIgnoreProperties("id")
+    private abstract static class WithoutIdMixIn {
+    }
+
+    /**
+     * Примесь Jackson, направляющая повторяющиеся строковые поля товара в {@link StringPool}.
+     */
+    private abstract static class ProductPoolingMixIn {
+
+        @JsonDeserialize(using = PooledStringDeserializer.class)
+        abstract void setCategory(String value);
+
+        @JsonDeserialize(using = PooledStringDeserializer.class)
+        abstract void setManufacturer(String value);
+    }
+
+    /**
+     * Примесь Jackson, направляющая место хранения остатка в {@link StringPool}.
+     */
+    private abstract static class WarehouseInStockPoolingMixIn {
+
+        @JsonDeserialize(using = PooledStringDeserializer.class)
+        abstract void setLocation(String value);
+    }
+
+    private static class DecodeCounter {
+
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        void record(long count, long elapsedNanos) {
+            items.addAndGet(count);
+            nanos.addAndGet(elapsedNanos);
+        }
+
+        DecodeStats snapshot() {
+            return new DecodeStats(items.get(), nanos.get());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Поток тела ответа с распаковкой по заголовку Content-Encoding.
+ * <p>
+ * Распаковщик создается при первом чтении, поэтому конструктор
+ * не блокируется и может вызываться из обработчика тела
+ * {@link java.net.http.HttpClient}. Поддерживаются gzip и deflate
+ * (как в обертке zlib, так и без нее). При закрытии потока
+ * в счетчик endpoint записываются объемы сжатых и распакованных данных.
+ */
+class DecodingInputStream extends InputStream {
+
+    private final CountingInputStream raw;
+    private final String encoding;
+    private final ApiGatewayService.TransferCounter counter;
+
+    private InputStream decoded;
+    private Inflater inflater;
+    private long uncompressedBytes;
+    private boolean closed;
+
+    /**
+     * @param raw Поток тела в том виде, в котором он получен из сети
+     * @param encoding Значение заголовка Content-Encoding в нижнем регистре
+     * @param counter Счетчик объема данных endpoint
+     */
+    DecodingInputStream(InputStream raw, String encoding, ApiGatewayService.TransferCounter counter) {
+        this.raw = new CountingInputStream(raw);
+        this.encoding = encoding;
+        this.counter = counter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int next = decoded().read();
+        if (next != -1) {
+            uncompressedBytes++;
+        }
+        return next;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = decoded().read(buffer, offset, length);
+        if (read > 0) {
+            uncompressedBytes += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return decoded == null ? 0 : decoded.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            (decoded != null ? decoded : raw).close();
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+            counter.record(raw.count, uncompressedBytes);
+        }
+    }
+
+    private InputStream decoded() throws IOException {
+        if (closed) {
+            throw new IOException("Поток закрыт");
+        }
+        if (decoded == null) {
+            decoded = switch (encoding) {
+                case "identity" -> raw;
+                case "gzip", "x-gzip" -> new GZIPInputStream(raw, 8192);
+                case "deflate" -> inflate();
+                default -> throw new IOException("Неподдерживаемое сжатие ответа: " + encoding);
+            };
+        }
+        return decoded;
+    }
+
+    /**
+     * Часть серверов отправляет deflate без обертки zlib,
+     * поэтому формат определяется по двум первым байтам.
+     */
+    private InputStream inflate() throws IOException {
+        PushbackInputStream input = new PushbackInputStream(raw, 2);
+        int first = input.read();
+        int second = input.read();
+        if (second != -1) {
+            input.unread(second);
+        }
+        if (first != -1) {
+            input.unread(first);
+        }
+
+        boolean zlibWrapped = (first & 0x0F) == 8 && second != -1 && ((first << 8) | second) % 31 == 0;
+        inflater = new Inflater(!zlibWrapped);
+        return new InflaterInputStream(input, inflater, 8192);
+    }
+
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream in;
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int next = in.read();
+            if (next != -1) {
+                count++;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.api.cargosimpleclient.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Получение изменений списка с момента предыдущей синхронизации.
+ * <p>
+ * Использует endpoint {@code <путь>/changes}, который возвращает
+ * версию данных сервера и записи, измененные после переданной версии:
+ * <pre>
+ * GET /api/products/changes?since=41
+ * {"version": 42, "changed": [{...}], "deleted": [17, 23]}
+ * </pre>
+ * Запрос без параметра since возвращает только текущую версию.
+ * Если сервер endpoint не поддерживает, путь запоминается,
+ * и дальнейшие запросы изменений по нему не выполняются;
+ * вызывающая сторона в этом случае сравнивает полный список.
+ */
+public class DeltaSyncService {
+
+    private static final Set<String> UNSUPPORTED_PATHS = ConcurrentHashMap.newKeySet();
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    /**
+     * Получение текущей версии данных списка.
+     * <p>
+     * Выполняет блокирующий сетевой запрос, поэтому не должен
+     * вызываться из JavaFX Application Thread.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @return Версия данных; null, если сервер не поддерживает получение изменений
+     */
+    public Long currentVersion(String path) throws IOException, InterruptedException {
+        JsonNode root = fetch(path, changesUri(path, null));
+        return root == null ? null : root.path("version").asLong();
+    }
+
+    /**
+     * Получение записей, измененных после указанной версии.
+     * <p>
+     * Выполняет блокирующий сетевой запрос, поэтому не должен
+     * вызываться из JavaFX Application Thread.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @param since Версия данных предыдущей синхронизации
+     * @param type Класс записей
+     * @param <T> Тип записей
+     * @return Изменения; null, если сервер не поддерживает получение изменений
+     * @throws ApiResponseException При неуспешном ответе сервера
+     */
+    public <T> Delta<T> changesSince(String path, long since, Class<T> type) throws IOException, InterruptedException {
+        JsonNode root = fetch(path, changesUri(path, since));
+        return root == null ? null : readDelta(root, type);
+    }
+
+    /**
+     * Разбор изменений в формате ответа {@code <путь>/changes}.
+     * <p>
+     * В том же формате приходят события {@link EventStreamService}.
+     *
+     * @param root Разобранный JSON с полями version, changed и deleted
+     * @param type Класс записей
+     * @param <T> Тип записей
+     * @return Изменения
+     */
+    public <T> Delta<T> readDelta(JsonNode root, Class<T> type) throws IOException {
+        List<T> changed = CodecService.listReader(type).readValue(root.path("changed"));
+        List<Long> deleted = new ArrayList<>();
+        for (JsonNode id : root.path("deleted")) {
+            deleted.add(id.asLong());
+        }
+        return new Delta<>(root.path("version").asLong(), changed, deleted);
+    }
+
+    /**
+     * Изменения списка с момента предыдущей синхронизации.
+     *
+     * @param version Версия данных сервера после применения изменений
+     * @param changed Добавленные и измененные записи
+     * @param deleted Идентификаторы удаленных записей
+     * @param <T> Тип записей
+     */
+    public record Delta<T>(long version, List<T> changed, List<Long> deleted) {
+    }
+
+    private JsonNode fetch(String path, String uri) throws IOException, InterruptedException {
+        if (UNSUPPORTED_PATHS.contains(path)) {
+            return null;
+        }
+
+        try (InputStream body = apiGatewayService.getStream(uri)) {
+            return CodecService.readTree(body);
+        } catch (ApiResponseException e) {
+            if (isUnsupported(e.getStatusCode())) {
+                UNSUPPORTED_PATHS.add(path);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Сервер без поддержки изменений либо не знает путь,
+     * либо пытается разобрать "changes" как идентификатор записи.
+     */
+    private static boolean isUnsupported(int statusCode) {
+        return statusCode == 400 || statusCode == 404 || statusCode == 405 || statusCode == 501;
+    }
+
+    private static String changesUri(String path, Long since) {
+        return since == null ? path + "/changes" : path + "/changes?since=" + since;
+    }
+}
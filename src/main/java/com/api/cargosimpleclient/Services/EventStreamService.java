@@ -0,0 +1,116 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Чтение потока событий сервера (Server-Sent Events).
+ * <p>
+ * Соединение открывается через общий клиент {@link ApiGatewayService}
+ * и остается открытым, пока его не закроет одна из сторон. Из формата
+ * text/event-stream используются поля event и data; многострочные
+ * данные склеиваются через перевод строки, комментарии (строки,
+ * начинающиеся с двоеточия) служат сервером для поддержания
+ * соединения и пропускаются.
+ */
+public class EventStreamService {
+
+    public static final String MEDIA_TYPE = "text/event-stream";
+
+    private static final String DEFAULT_EVENT = "message";
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+
+    /**
+     * Подключение к потоку событий.
+     * <p>
+     * Выполняет блокирующий сетевой запрос, поэтому не должен
+     * вызываться из JavaFX Application Thread.
+     *
+     * @param path Путь к потоку относительно адреса сервера
+     * @return Открытый поток событий; должен быть закрыт вызывающей стороной
+     * @throws ApiResponseException При неуспешном ответе сервера
+     */
+    public EventStream open(String path) throws IOException, InterruptedException {
+        return new EventStream(new BufferedReader(new InputStreamReader(
+                apiGatewayService.getEventStream(path), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Событие сервера.
+     *
+     * @param name Имя события; "message", если сервер его не указал
+     * @param data Данные события
+     */
+    public record Event(String name, String data) {
+    }
+
+    /**
+     * Открытый поток событий.
+     * <p>
+     * Закрытие из другого потока прерывает ожидание {@link #next()}.
+     */
+    public static class EventStream implements Closeable {
+
+        private final BufferedReader reader;
+
+        private EventStream(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Ожидание следующего события.
+         *
+         * @return Событие или null, если сервер закрыл соединение
+         */
+        public Event next() throws IOException {
+            String name = DEFAULT_EVENT;
+            StringBuilder data = null;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (data != null) {
+                        return new Event(name, data.toString());
+                    }
+                    name = DEFAULT_EVENT;
+                    continue;
+                }
+                if (line.startsWith(":")) {
+                    continue;
+                }
+
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                String value = colon < 0 ? "" : line.substring(colon + 1);
+                if (value.startsWith(" ")) {
+                    value = value.substring(1);
+                }
+
+                switch (field) {
+                    case "event" -> name = value;
+                    case "data" -> {
+                        if (data == null) {
+                            data = new StringBuilder(value);
+                        } else {
+                            data.append('\n').append(value);
+                        }
+                    }
+                    default -> {
+                        // id и retry не используются: после переподключения
+                        // пропущенные изменения запрашиваются через DeltaSyncService
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.api.cargosimpleclient.Services;
 
+import com.api.cargosimpleclient.Stores.EntityStore;
+import com.api.cargosimpleclient.Stores.RefreshScheduler;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -8,39 +11,190 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Сервисный класс для загрузки и отображения представлений (view) в JavaFX приложении.
  * <p>
  * Предоставляет методы для динамической смены сцен и отображения диалоговых окон с ошибками.
- *
+ * <p>
+ * Загруженные сцены вместе с контроллерами хранятся в LRU-кэше, поэтому
+ * повторный переход на страницу не разбирает FXML заново и сохраняет
+ * данные, фильтры и положение прокрутки. Размер кэша задается системным
+ * свойством {@value #CACHE_SIZE_PROPERTY}; значение 0 отключает кэширование.
+ * Экраны входа и регистрации не кэшируются, а переход на экран входа
+ * очищает кэш, чтобы данные не сохранялись между сеансами.
+ * <p>
+ * Переход на страницы после входа запускает фоновое обновление
+ * данных {@link RefreshScheduler}, а выход на экран входа его останавливает.
  */
 public class LoadViewService {
 
+    private static final String CACHE_SIZE_PROPERTY = "cargo.view.cache.size";
+    private static final String LOGIN_VIEW = "/fxml/login.fxml";
+    private static final Set<String> NON_CACHEABLE_VIEWS = Set.of(LOGIN_VIEW, "/fxml/register.fxml");
+
+    private static final int MAX_CACHED_VIEWS = Integer.getInteger(CACHE_SIZE_PROPERTY, 4);
+
+    private static final Map<String, CachedView> VIEW_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedView> eldest) {
+            return size() > MAX_CACHED_VIEWS;
+        }
+    };
+
+    private static CachedView currentView;
+    private static long cacheHits;
+    private static long cacheMisses;
+
     private final AlertService alertService = new AlertService();
 
     /**
      * Загружает и отображает новое представление (FXML) в текущем окне.
+     * <p>
+     * Перед сменой сцены отменяет незавершенные фоновые задачи
+     * покидаемого представления; загрузки и обновления хранилищ
+     * продолжаются. Если представление уже есть
+     * в кэше, используется сохраненная сцена, а контроллер получает
+     * уведомление {@link ViewLifecycle#onViewShown()}.
      *
      * @param fxmlPath Путь к FXML файлу для загрузки
      * @param control Элемент управления, используемый для получения текущей сцены
      * @param title Заголовок окна
      */
     public void loadView(String fxmlPath, Control control, String title) {
+        BackgroundTaskService.cancelViewTasks();
+        notifyHidden(currentView);
+
+        if (LOGIN_VIEW.equals(fxmlPath)) {
+            RefreshScheduler.getInstance().stop();
+            BackgroundTaskService.cancelAll();
+            clearCache();
+            ResponseCacheService.clear();
+            StockIndexService.clear();
+            EntityStore.clearAll();
+        }
+
         try {
+            Stage stage = (Stage) control.getScene().getWindow();
+            if (!NON_CACHEABLE_VIEWS.contains(fxmlPath)) {
+                RefreshScheduler.getInstance().start(stage);
+            }
+
+            CachedView cachedView = VIEW_CACHE.get(fxmlPath);
+            if (cachedView != null) {
+                cacheHits++;
+                stage.setScene(cachedView.scene());
+                stage.setTitle(title);
+                currentView = cachedView;
+                if (cachedView.controller() instanceof ViewLifecycle lifecycle) {
+                    lifecycle.onViewShown();
+                }
+                return;
+            }
+
+            cacheMisses++;
+            long heapBefore = usedHeap();
+
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
             Parent root = loader.load();
-            Stage stage = (Stage) control.getScene().getWindow();
             Scene scene = new Scene(root, 1600, 900);
             scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/css/styles.css")).toExternalForm());
             stage.setScene(scene);
             stage.setTitle(title);
+
+            CachedView loadedView = new CachedView(
+                    scene,
+                    loader.getController(),
+                    countNodes(root),
+                    Math.max(0, usedHeap() - heapBefore)
+            );
+            currentView = loadedView;
+
+            if (MAX_CACHED_VIEWS > 0 && !NON_CACHEABLE_VIEWS.contains(fxmlPath)) {
+                VIEW_CACHE.put(fxmlPath, loadedView);
+            }
         } catch (IOException e) {
             alertService.showErrorAlert("Ошибка", "Не удалось открыть " + title.toLowerCase());
         }
     }
 
+    /**
+     * Очистка кэша представлений.
+     * <p>
+     * Используется при выходе из системы.
+     */
+    public static void clearCache() {
+        VIEW_CACHE.clear();
+    }
+
+    /**
+     * Получение статистики кэша представлений.
+     * <p>
+     * Объем удерживаемой памяти оценивается по приросту занятой кучи
+     * во время загрузки каждого представления и является приблизительным.
+     *
+     * @return Снимок статистики кэша
+     */
+    public static ViewCacheStats getCacheStats() {
+        long nodes = 0;
+        long bytes = 0;
+        for (CachedView view : VIEW_CACHE.values()) {
+            nodes += view.nodeCount();
+            bytes += view.estimatedBytes();
+        }
+        return new ViewCacheStats(VIEW_CACHE.size(), MAX_CACHED_VIEWS, cacheHits, cacheMisses, nodes, bytes);
+    }
+
+    /**
+     * Снимок статистики кэша представлений.
+     *
+     * @param cachedViews Количество представлений в кэше
+     * @param maxCachedViews Максимальный размер кэша
+     * @param hits Переходы, обслуженные из кэша
+     * @param misses Переходы с загрузкой FXML
+     * @param retainedNodes Число узлов графа сцены в кэшированных представлениях
+     * @param estimatedRetainedBytes Оценка памяти, удерживаемой кэшированными представлениями
+     */
+    public record ViewCacheStats(int cachedViews, int maxCachedViews, long hits, long misses,
+                                 long retainedNodes, long estimatedRetainedBytes) {
+    }
+
+    /**
+     * Загруженное представление.
+     *
+     * @param scene Сцена представления
+     * @param controller Контроллер, созданный FXMLLoader
+     * @param nodeCount Число узлов графа сцены на момент загрузки
+     * @param estimatedBytes Оценка занятой при загрузке памяти
+     */
+    private record CachedView(Scene scene, Object controller, int nodeCount, long estimatedBytes) {
+    }
+
+    private static void notifyHidden(CachedView view) {
+        if (view != null && view.controller() instanceof ViewLifecycle lifecycle) {
+            lifecycle.onViewHidden();
+        }
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
     /**
      * Отображает диалоговое окно с информацией об ошибке.
      *
@@ -0,0 +1,25 @@
+package com.api.cargosimpleclient.Services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Десериализатор строк, возвращающий канонические экземпляры из {@link StringPool}.
+ * <p>
+ * Подключается к отдельным полям DTO через примеси {@link CodecService}.
+ */
+public class PooledStringDeserializer extends StdScalarDeserializer<String> {
+
+    public PooledStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return StringPool.canonical(StringDeserializer.instance.deserialize(parser, context));
+    }
+}
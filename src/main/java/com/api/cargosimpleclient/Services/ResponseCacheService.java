@@ -0,0 +1,172 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Условная перепроверка списков, полученных с сервера.
+ * <p>
+ * Для каждого пути хранятся только валидаторы последнего ответа,
+ * сами записи принадлежат вызывающей стороне:
+ * - ETag и Last-Modified передаются в условном запросе как
+ *   If-None-Match и If-Modified-Since; ответ 304 означает, что
+ *   список не изменился, и тело не загружается
+ * - Если сервер валидаторы не передает, во время потокового разбора
+ *   тела вычисляется его хэш SHA-256; совпадение с сохраненным
+ *   означает, что список не изменился
+ * <p>
+ * Записи передаются обработчику по мере разбора, поэтому тело
+ * ответа не буферизуется целиком. Размер кэша ограничен свойством
+ * {@value #MAX_ENTRIES_PROPERTY}, давно неиспользуемые пути
+ * вытесняются (LRU). Состояние кэша статическое и общее для всех
+ * экземпляров сервиса.
+ */
+public class ResponseCacheService {
+
+    private static final String MAX_ENTRIES_PROPERTY = "cargo.http.cache.entries";
+    private static final int MAX_ENTRIES = Integer.getInteger(MAX_ENTRIES_PROPERTY, 8);
+
+    private static final Map<String, Validators> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Validators> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    private static final AtomicLong NOT_MODIFIED = new AtomicLong();
+    private static final AtomicLong HASH_MATCHES = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+    private final CodecService codecService = new CodecService();
+
+    /**
+     * Получение списка с передачей каждой записи обработчику
+     * и сохранением валидаторов ответа.
+     * <p>
+     * Запрос выполняется без условий, поэтому подходит для загрузки
+     * в пустой список. Выполняет блокирующий сетевой запрос, поэтому
+     * не должен вызываться из JavaFX Application Thread.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @param type Класс записей
+     * @param consumer Обработчик записей
+     * @param <T> Тип записей
+     * @throws ApiResponseException При неуспешном ответе сервера
+     */
+    public <T> void readEach(String path, Class<T> type, Consumer<? super T> consumer)
+            throws IOException, InterruptedException {
+        read(path, type, consumer, false);
+    }
+
+    /**
+     * Получение списка, если он изменился с предыдущего запроса.
+     * <p>
+     * Используется для перепроверки списка, который уже есть у
+     * вызывающей стороны. Если сервер валидаторы не передает,
+     * записи передаются обработчику до того, как становится известно,
+     * что список не изменился; в этом случае их следует отбросить.
+     * Выполняет блокирующий сетевой запрос, поэтому не должен
+     * вызываться из JavaFX Application Thread.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @param type Класс записей
+     * @param consumer Обработчик записей
+     * @param <T> Тип записей
+     * @return false, если список не изменился
+     * @throws ApiResponseException При неуспешном ответе сервера
+     */
+    public <T> boolean readEachIfModified(String path, Class<T> type, Consumer<? super T> consumer)
+            throws IOException, InterruptedException {
+        return read(path, type, consumer, true);
+    }
+
+    /**
+     * Очистка кэша, например при выходе пользователя.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Получение статистики кэша ответов.
+     *
+     * @return Снимок статистики кэша
+     */
+    public static ResponseCacheStats getStats() {
+        return new ResponseCacheStats(CACHE.size(), NOT_MODIFIED.get(), HASH_MATCHES.get(), MISSES.get());
+    }
+
+    /**
+     * Снимок статистики кэша ответов.
+     *
+     * @param entries Количество путей с сохраненными валидаторами
+     * @param notModified Ответы 304 на условные запросы
+     * @param hashMatches Ответы без валидаторов, совпавшие с предыдущими по хэшу
+     * @param misses Ответы с измененными или впервые полученными данными
+     */
+    public record ResponseCacheStats(int entries, long notModified, long hashMatches, long misses) {
+    }
+
+    private <T> boolean read(String path, Class<T> type, Consumer<? super T> consumer, boolean conditional)
+            throws IOException, InterruptedException {
+        Validators cached = conditional ? CACHE.get(path) : null;
+
+        HttpResponse<InputStream> response = cached == null
+                ? apiGatewayService.getConditional(path, null, null)
+                : apiGatewayService.getConditional(path, cached.etag(), cached.lastModified());
+
+        if (response.statusCode() == 304) {
+            response.body().close();
+            if (cached == null) {
+                throw new ApiResponseException(304, "Ответ 304 на безусловный запрос: " + path);
+            }
+            NOT_MODIFIED.incrementAndGet();
+            return false;
+        }
+
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        MessageDigest digest = etag == null && lastModified == null ? sha256() : null;
+
+        try (InputStream body = digest == null ? response.body() : new DigestInputStream(response.body(), digest)) {
+            codecService.readEach(body, type, consumer);
+        }
+
+        byte[] contentHash = digest == null ? null : digest.digest();
+        CACHE.put(path, new Validators(etag, lastModified, contentHash));
+
+        if (cached != null && contentHash != null && Arrays.equals(cached.contentHash(), contentHash)) {
+            HASH_MATCHES.incrementAndGet();
+            return false;
+        }
+        MISSES.incrementAndGet();
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Валидаторы последнего ответа: ETag и Last-Modified либо
+     * хэш тела, если сервер их не передает.
+     */
+    private record Validators(String etag, String lastModified, byte[] contentHash) {
+    }
+}
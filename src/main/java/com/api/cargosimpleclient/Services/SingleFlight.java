@@ -0,0 +1,105 @@
+package com.api.cargosimpleclient.Services;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Объединение одинаковых одновременных операций (single-flight).
+ * <p>
+ * Первый вызов с данным ключом выполняет операцию, а вызовы с тем же
+ * ключом, поступившие до ее завершения, ожидают общий
+ * {@link CompletableFuture} и получают тот же результат или ту же ошибку.
+ * Вызов после завершения операции выполняет ее заново, поэтому
+ * результаты не кэшируются.
+ *
+ * @param <T> Тип результата операции
+ */
+public class SingleFlight<T> {
+
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+
+    /**
+     * Выполнение операции или присоединение к уже выполняемой.
+     *
+     * @param key Ключ операции, например путь запроса
+     * @param operation Операция
+     * @return Результат операции
+     * @throws CancellationException если выполнявший операцию поток был прерван
+     */
+    public T execute(String key, Operation<T> operation) throws IOException, InterruptedException {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            joined.incrementAndGet();
+            return await(existing);
+        }
+
+        executed.incrementAndGet();
+        try {
+            T result = operation.execute();
+            created.complete(result);
+            return result;
+        } catch (InterruptedException e) {
+            created.completeExceptionally(new CancellationException("Операция прервана"));
+            throw e;
+        } catch (IOException | RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * @return Снимок счетчиков объединения
+     */
+    public Stats getStats() {
+        return new Stats(executed.get(), joined.get());
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Объединяемая операция.
+     *
+     * @param <T> Тип результата
+     */
+    @FunctionalInterface
+    public interface Operation<T> {
+        T execute() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Снимок счетчиков объединения.
+     *
+     * @param executed Операции, выполненные фактически
+     * @param joined Вызовы, получившие результат уже выполнявшейся операции
+     */
+    public record Stats(long executed, long joined) {
+    }
+}
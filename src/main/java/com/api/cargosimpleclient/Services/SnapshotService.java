@@ -0,0 +1,235 @@
+package com.api.cargosimpleclient.Services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import javafx.application.Platform;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Локальные снимки загруженных списков для быстрого запуска.
+ * <p>
+ * Каждый список хранится в отдельном файле в бинарном формате Smile
+ * в каталоге {@value #DIRECTORY_PROPERTY} (по умолчанию
+ * {@code ~/.cargo-simple-client/snapshots}) вместе с моментом,
+ * на который данные актуальны, и версией данных сервера:
+ * - Чтение разбирает записи потоком из файла, без чтения файла
+ *   в промежуточный массив; файл не отображается в память, поэтому
+ *   его можно заменить сразу после чтения, в том числе в Windows
+ * - Запись выполняется в одном фоновом потоке во временный файл
+ *   с атомарной заменой, поэтому прерванная запись не портит
+ *   предыдущий снимок
+ * - Сохранение только отмечает список измененным; снимок одного
+ *   списка записывается не чаще чем раз в {@value #MIN_WRITE_INTERVAL_SECONDS}
+ *   секунд, и копия записей снимается непосредственно перед записью
+ * - Снимок другой версии формата или с другим типом записей
+ *   не используется
+ * <p>
+ * Снимок не заменяет данные сервера: по нему таблица отображается
+ * до завершения обновления. Отключается свойством {@value #ENABLED_PROPERTY}.
+ */
+public class SnapshotService {
+
+    private static final String ENABLED_PROPERTY = "cargo.snapshot.enabled";
+    private static final String DIRECTORY_PROPERTY = "cargo.snapshot.dir";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    private static final Path DIRECTORY = Path.of(System.getProperty(DIRECTORY_PROPERTY,
+            Path.of(System.getProperty("user.home"), ".cargo-simple-client", "snapshots").toString()));
+
+    private static final int FORMAT = 1;
+    private static final long MIN_WRITE_INTERVAL_SECONDS = 30;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<String, PendingWrite> PENDING = new ConcurrentHashMap<>();
+    private static final Map<String, Long> LAST_WRITTEN_NANOS = new ConcurrentHashMap<>();
+
+    /**
+     * Чтение снимка списка.
+     * <p>
+     * Выполняет чтение с диска, поэтому не должен вызываться
+     * из JavaFX Application Thread.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @param type Класс записей
+     * @param <T> Тип записей
+     * @return Снимок или null, если подходящего снимка нет
+     * @throws IOException Если снимок поврежден или не читается
+     */
+    public <T> Snapshot<T> read(String path, Class<T> type) throws IOException {
+        Path file = fileFor(path);
+        if (!ENABLED || !Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+             JsonParser parser = CodecService.smileParser(in)) {
+            return readSnapshot(parser, type);
+        }
+    }
+
+    /**
+     * Отметка списка измененным и запись его снимка в фоне.
+     * <p>
+     * Вызов не копирует записи: снимок запрашивается у поставщика
+     * в JavaFX Application Thread, когда подходит время записи, поэтому
+     * частые изменения списка стоят одной копии за интервал записи.
+     * Ошибки записи не передаются: снимок необязателен,
+     * и следующий вызов повторит запись.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     * @param type Класс записей
+     * @param snapshot Поставщик снимка с неизменяемым списком записей;
+     *                 null, если сохранять нечего
+     * @param <T> Тип записей
+     */
+    public <T> void save(String path, Class<T> type, Supplier<Snapshot<T>> snapshot) {
+        if (!ENABLED) {
+            return;
+        }
+        if (PENDING.put(path, new PendingWrite(type, snapshot)) == null) {
+            Long lastWritten = LAST_WRITTEN_NANOS.get(path);
+            long delayNanos = lastWritten == null ? 0
+                    : Math.max(0, lastWritten + TimeUnit.SECONDS.toNanos(MIN_WRITE_INTERVAL_SECONDS) - System.nanoTime());
+            WRITER.schedule(() -> writePending(path), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Удаление снимка списка, например когда список перестал
+     * загружаться целиком.
+     *
+     * @param path Путь к списку относительно адреса сервера
+     */
+    public void delete(String path) {
+        PENDING.remove(path);
+        WRITER.execute(() -> {
+            try {
+                Files.deleteIfExists(fileFor(path));
+            } catch (IOException e) {
+                // Устаревший снимок будет перезаписан при следующем сохранении
+            }
+        });
+    }
+
+    /**
+     * Снимок списка.
+     *
+     * @param asOf Момент, на который данные были актуальны
+     * @param version Версия данных сервера или null, если сервер ее не сообщает
+     * @param items Записи списка
+     * @param <T> Тип записей
+     */
+    public record Snapshot<T>(Instant asOf, Long version, List<T> items) {
+    }
+
+    private record PendingWrite(Class<?> type, Supplier<? extends Snapshot<?>> snapshot) {
+    }
+
+    private static void writePending(String path) {
+        PendingWrite pending = PENDING.remove(path);
+        if (pending == null) {
+            return;
+        }
+        LAST_WRITTEN_NANOS.put(path, System.nanoTime());
+        try {
+            Snapshot<?> snapshot = CompletableFuture.supplyAsync(pending.snapshot(), Platform::runLater).get();
+            if (snapshot != null) {
+                write(fileFor(path), pending.type(), snapshot);
+            }
+        } catch (IOException | ExecutionException | IllegalStateException e) {
+            // См. save(); IllegalStateException - приложение уже завершается
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(Path file, Class<?> type, Snapshot<?> snapshot) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path temp = Files.createTempFile(DIRECTORY, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024);
+                 JsonGenerator generator = CodecService.smileGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeNumberField("format", FORMAT);
+                generator.writeStringField("type", type.getName());
+                generator.writeNumberField("asOf", snapshot.asOf().toEpochMilli());
+                if (snapshot.version() != null) {
+                    generator.writeNumberField("version", snapshot.version());
+                }
+                generator.writeFieldName("items");
+                generator.writeObject(snapshot.items());
+                generator.writeEndObject();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Разбор снимка. Служебные поля записываются до записей,
+     * поэтому неподходящий снимок отбрасывается без разбора записей.
+     */
+    private static <T> Snapshot<T> readSnapshot(JsonParser parser, Class<T> type) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        int format = 0;
+        String typeName = null;
+        Instant asOf = null;
+        Long version = null;
+        List<T> items = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "format" -> format = parser.getIntValue();
+                case "type" -> typeName = parser.getText();
+                case "asOf" -> asOf = Instant.ofEpochMilli(parser.getLongValue());
+                case "version" -> version = parser.getLongValue();
+                case "items" -> {
+                    if (format != FORMAT || !type.getName().equals(typeName)) {
+                        return null;
+                    }
+                    items = CodecService.listReader(type).readValue(parser);
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return items == null || asOf == null ? null : new Snapshot<>(asOf, version, items);
+    }
+
+    /**
+     * Имя файла строится по пути списка: /api/warehouse-stocks - api_warehouse-stocks.smile.
+     */
+    private static Path fileFor(String path) {
+        String name = path.replaceAll("^/+", "").replaceAll("[^A-Za-z0-9._-]", "_");
+        return DIRECTORY.resolve(name + ".smile");
+    }
+}
@@ -0,0 +1,389 @@
+package com.api.cargosimpleclient.Services;
+
+import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш складских остатков по товарам.
+ * <p>
+ * Используется, когда список остатков слишком велик для полной загрузки
+ * и открыт в постраничном режиме. Остатки хранятся только для товаров,
+ * которые запрашивались при отрисовке строк:
+ * - Размер кэша ограничен свойством {@value #MAX_ENTRIES_PROPERTY},
+ *   давно неиспользуемые товары вытесняются (LRU)
+ * - Запись устаревает через {@value #TTL_PROPERTY} секунд и до
+ *   обновления отдается как есть
+ * - Остатки товара сбрасываются явно через {@link #invalidate(Long)}
+ *   при добавлении, изменении или удалении его складских записей
+ * <p>
+ * Отсутствующие и устаревшие товары накапливаются и загружаются
+ * вместе в {@link #loadPending()} одним запросом их складских записей
+ * /api/warehouse-stocks?productIds=1,2,3. Если сервер такой фильтр
+ * не поддерживает, записи запрашиваются для каждого товара по
+ * /api/warehouse-stocks/product/{id}, не более
+ * {@value #CONCURRENCY_PROPERTY} запросов одновременно.
+ * Полный список остатков при этом не загружается и не хранится.
+ * Чтение кэша не обращается к сети, поэтому его можно безопасно
+ * использовать при отрисовке строк таблицы. Состояние кэша статическое
+ * и общее для всех экземпляров сервиса.
+ */
+public class StockIndexService {
+
+    private static final String STOCKS_PATH = "/api/warehouse-stocks";
+    private static final String PRODUCT_IDS_PARAMETER = "productIds";
+
+    private static final String MAX_ENTRIES_PROPERTY = "cargo.stock.cache.entries";
+    private static final String TTL_PROPERTY = "cargo.stock.cache.ttl";
+    private static final String CONCURRENCY_PROPERTY = "cargo.stock.fetch.concurrency";
+
+    private static final int MAX_ENTRIES = Integer.getInteger(MAX_ENTRIES_PROPERTY, 10_000);
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong(TTL_PROPERTY, 60));
+    private static final int CONCURRENCY = Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, 8));
+
+    /**
+     * Наибольшее число товаров в одной загрузке, с запасом больше
+     * числа строк, видимых в таблице; остальные останутся в очереди
+     * до следующей.
+     */
+    private static final int MAX_BATCH = 100;
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EXPIRED = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private static final Map<Long, CachedTotals> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedTotals> eldest) {
+                    if (size() > MAX_ENTRIES) {
+                        EVICTIONS.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    private static final Set<Long> PENDING = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Товары, сброшенные во время каждой из выполняющихся загрузок.
+     * Изменяется вместе с кэшем под его блокировкой.
+     */
+    private static final Set<Set<Long>> ACTIVE_LOADS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Сервер не поддерживает фильтр по товарам, остатки загружаются
+     * по одному товару до конца работы приложения.
+     */
+    private static volatile boolean batchUnsupported;
+
+    private final ApiGatewayService apiGatewayService = new ApiGatewayService();
+    private final CodecService codecService = new CodecService();
+
+    /**
+     * Получение остатков товара из кэша.
+     * <p>
+     * Отсутствующий или устаревший товар ставится в очередь загрузки,
+     * см. {@link #hasPending()} и {@link #loadPending()}.
+     *
+     * @param productId Идентификатор товара
+     * @return Остатки товара, возможно устаревшие; null, если остатки еще не загружались
+     */
+    public StockTotals totalsFor(Long productId) {
+        CachedTotals cached = CACHE.get(productId);
+        if (cached == null) {
+            MISSES.incrementAndGet();
+            PENDING.add(productId);
+            return null;
+        }
+        if (System.nanoTime() - cached.loadedAtNanos() > TTL_NANOS) {
+            EXPIRED.incrementAndGet();
+            PENDING.add(productId);
+        } else {
+            HITS.incrementAndGet();
+        }
+        return cached.totals();
+    }
+
+    /**
+     * @return true, если есть товары, ожидающие загрузки остатков
+     */
+    public boolean hasPending() {
+        return !PENDING.isEmpty();
+    }
+
+    /**
+     * Загрузка остатков товаров, ожидающих в очереди.
+     * <p>
+     * Выполняет блокирующий сетевой запрос, поэтому не должен
+     * вызываться из JavaFX Application Thread. Остатки каждого товара
+     * суммируются по мере разбора его записей. Одновременные вызовы
+     * загружают разные товары очереди, а одинаковые запросы по одному
+     * товару объединяет {@link ApiGatewayService#getStreamShared(String)}.
+     * Товары, которые не удалось загрузить, возвращаются в очередь,
+     * остатки остальных сохраняются.
+     *
+     * @return Количество обновленных товаров
+     * @throws IOException При ошибке сети или неуспешном ответе сервера
+     */
+    public int loadPending() throws IOException, InterruptedException {
+        List<Long> requested = new ArrayList<>();
+        for (Iterator<Long> iterator = PENDING.iterator(); iterator.hasNext() && requested.size() < MAX_BATCH; ) {
+            requested.add(iterator.next());
+            iterator.remove();
+        }
+        if (requested.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> invalidated = ConcurrentHashMap.newKeySet();
+        ACTIVE_LOADS.add(invalidated);
+        try {
+            Map<Long, StockTotals> totals;
+            try {
+                totals = batchUnsupported ? null : fetchBatch(requested);
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                PENDING.addAll(requested);
+                throw e;
+            }
+            if (totals == null) {
+                return storeTotals(requested, fetchAll(requested), invalidated);
+            }
+
+            List<Future<StockTotals>> results = new ArrayList<>(requested.size());
+            for (Long productId : requested) {
+                results.add(CompletableFuture.completedFuture(totals.getOrDefault(productId, StockTotals.EMPTY)));
+            }
+            return storeTotals(requested, results, invalidated);
+        } finally {
+            ACTIVE_LOADS.remove(invalidated);
+        }
+    }
+
+    /**
+     * Сброс остатков товара после изменения его складских записей.
+     * <p>
+     * Остатки товара, полученные выполняющейся загрузкой, могли быть
+     * запрошены до изменения, поэтому она их не сохраняет, а возвращает
+     * товар в очередь.
+     *
+     * @param productId Идентификатор товара
+     */
+    public static void invalidate(Long productId) {
+        synchronized (CACHE) {
+            for (Set<Long> invalidated : ACTIVE_LOADS) {
+                invalidated.add(productId);
+            }
+            CACHE.remove(productId);
+        }
+    }
+
+    /**
+     * Очистка кэша, например при выходе пользователя.
+     */
+    public static void clear() {
+        CACHE.clear();
+        PENDING.clear();
+        batchUnsupported = false;
+    }
+
+    /**
+     * Получение статистики кэша остатков.
+     *
+     * @return Снимок статистики кэша
+     */
+    public static StockCacheStats getStats() {
+        return new StockCacheStats(CACHE.size(), MAX_ENTRIES, HITS.get(), MISSES.get(), EXPIRED.get(), EVICTIONS.get());
+    }
+
+    /**
+     * Загрузка остатков товаров одним запросом. Товар без записей
+     * в ответе не имеет остатков.
+     * <p>
+     * Сервер без фильтра по товарам отвечает ошибкой 400, 404, 405
+     * или 501 либо игнорирует параметр и возвращает весь список или его
+     * страницу. Во втором случае чтение прерывается на первой записи
+     * незапрошенного товара, а фильтр больше не используется.
+     *
+     * @return Остатки по товарам; null, если сервер не поддерживает фильтр
+     */
+    private Map<Long, StockTotals> fetchBatch(List<Long> requested) throws IOException, InterruptedException {
+        Set<Long> productIds = new HashSet<>(requested);
+        Map<Long, int[]> sums = new HashMap<>();
+        String path = STOCKS_PATH + "?" + PRODUCT_IDS_PARAMETER + "="
+                + requested.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try (InputStream body = apiGatewayService.getStream(path)) {
+            codecService.readEach(body, WarehouseInStockDTO.class, stock -> {
+                if (!productIds.contains(stock.getProductId())) {
+                    throw new UnfilteredResponseException();
+                }
+                int[] sum = sums.computeIfAbsent(stock.getProductId(), _ -> new int[2]);
+                sum[0] += stock.getCurrentQuantity();
+                sum[1] += stock.getReservedQuantity();
+            });
+        } catch (ApiResponseException e) {
+            int status = e.getStatusCode();
+            if (status != 400 && status != 404 && status != 405 && status != 501) {
+                throw e;
+            }
+            batchUnsupported = true;
+            return null;
+        } catch (UnfilteredResponseException | MismatchedInputException e) {
+            batchUnsupported = true;
+            return null;
+        }
+
+        Map<Long, StockTotals> totals = new HashMap<>();
+        sums.forEach((productId, sum) -> totals.put(productId, new StockTotals(sum[0], sum[1])));
+        return totals;
+    }
+
+    private List<Future<StockTotals>> fetchAll(List<Long> requested) {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        List<Future<StockTotals>> results = new ArrayList<>(requested.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long productId : requested) {
+                results.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return fetchTotals(productId);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Сохранение полученных остатков. Товары, сброшенные во время
+     * загрузки, и товары с ошибкой возвращаются в очередь.
+     */
+    private int storeTotals(List<Long> requested, List<Future<StockTotals>> results, Set<Long> invalidated)
+            throws IOException, InterruptedException {
+        long loadedAtNanos = System.nanoTime();
+        int loaded = 0;
+        Throwable failure = null;
+        for (int i = 0; i < requested.size(); i++) {
+            Long productId = requested.get(i);
+            try {
+                StockTotals totals = results.get(i).get();
+                synchronized (CACHE) {
+                    if (invalidated.contains(productId)) {
+                        PENDING.add(productId);
+                        continue;
+                    }
+                    CACHE.put(productId, new CachedTotals(totals, loadedAtNanos));
+                }
+                loaded++;
+            } catch (ExecutionException e) {
+                PENDING.add(productId);
+                failure = failure == null ? e.getCause() : failure;
+            } catch (CancellationException e) {
+                PENDING.add(productId);
+            }
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof InterruptedException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        return loaded;
+    }
+
+    /**
+     * Загрузка остатков одного товара. Товар без складских записей
+     * сервер может вернуть как пустой список или как 404.
+     */
+    private StockTotals fetchTotals(Long productId) throws IOException, InterruptedException {
+        int[] sum = new int[2];
+        try (InputStream body = apiGatewayService.getStreamShared(STOCKS_PATH + "/product/" + productId)) {
+            codecService.readEach(body, WarehouseInStockDTO.class, stock -> {
+                sum[0] += stock.getCurrentQuantity();
+                sum[1] += stock.getReservedQuantity();
+            });
+        } catch (ApiResponseException e) {
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+        return new StockTotals(sum[0], sum[1]);
+    }
+
+    /**
+     * Суммарные остатки товара по всем складам.
+     *
+     * @param total Текущее количество
+     * @param reserved Зарезервированное количество
+     */
+    public record StockTotals(int total, int reserved) {
+
+        public static final StockTotals EMPTY = new StockTotals(0, 0);
+
+        /**
+         * @return Количество, доступное для резервирования
+         */
+        public int available() {
+            return total - reserved;
+        }
+    }
+
+    /**
+     * Снимок статистики кэша остатков.
+     *
+     * @param entries Количество товаров в кэше
+     * @param maxEntries Предельное количество товаров
+     * @param hits Обращения, обслуженные актуальными данными
+     * @param misses Обращения к товарам, отсутствующим в кэше
+     * @param expired Обращения к устаревшим данным, поставленным на обновление
+     * @param evictions Товары, вытесненные по размеру
+     */
+    public record StockCacheStats(int entries, int maxEntries, long hits, long misses, long expired, long evictions) {
+    }
+
+    private record CachedTotals(StockTotals totals, long loadedAtNanos) {
+    }
+
+    /**
+     * Ответ содержит записи незапрошенных товаров.
+     */
+    private static final class UnfilteredResponseException extends RuntimeException {
+
+        UnfilteredResponseException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.cargosimpleclient.Services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пул канонических экземпляров строк с небольшим числом различных значений.
+ * <p>
+ * Используется при разборе ответов сервера для полей вроде категории,
+ * производителя и места хранения: одинаковые значения тысяч записей
+ * разделяют один экземпляр строки. {@link String#equals(Object)} сначала
+ * сравнивает ссылки, а хэш строки кэшируется в экземпляре, поэтому
+ * сравнение и подсчет пулированных значений не проходит по символам.
+ * <p>
+ * В отличие от {@link String#intern()} пул принадлежит приложению
+ * и ограничен свойством {@value #MAX_SIZE_PROPERTY}: после заполнения
+ * новые значения возвращаются без сохранения, чтобы поле с неожиданно
+ * высокой кардинальностью не удерживало память.
+ */
+public final class StringPool {
+
+    private static final String MAX_SIZE_PROPERTY = "cargo.string.pool.size";
+    private static final int MAX_SIZE = Integer.getInteger(MAX_SIZE_PROPERTY, 8192);
+
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private StringPool() {
+    }
+
+    /**
+     * Получение канонического экземпляра строки.
+     *
+     * @param value Строка или null
+     * @return Равная строка из пула, сама строка при заполненном пуле или null
+     */
+    public static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String pooled = POOL.get(value);
+        if (pooled != null) {
+            HITS.incrementAndGet();
+            return pooled;
+        }
+
+        MISSES.incrementAndGet();
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        pooled = POOL.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * Очистка пула.
+     */
+    public static void clear() {
+        POOL.clear();
+    }
+
+    /**
+     * Получение статистики пула.
+     *
+     * @return Снимок статистики пула
+     */
+    public static StringPoolStats getStats() {
+        return new StringPoolStats(POOL.size(), MAX_SIZE, HITS.get(), MISSES.get());
+    }
+
+    /**
+     * Снимок статистики пула строк.
+     *
+     * @param size Количество строк в пуле
+     * @param maxSize Предельное количество строк
+     * @param hits Значения, замененные экземпляром из пула
+     * @param misses Значения, отсутствовавшие в пуле
+     */
+    public record StringPoolStats(int size, int maxSize, long hits, long misses) {
+    }
+}
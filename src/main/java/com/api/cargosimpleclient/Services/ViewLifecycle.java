@@ -0,0 +1,26 @@
+package com.api.cargosimpleclient.Services;
+
+/**
+ * Обработчики жизненного цикла кэшируемого представления.
+ * <p>
+ * Реализуется контроллерами представлений, которые {@link LoadViewService}
+ * хранит в кэше между переходами. Контроллер создается один раз,
+ * а при повторных переходах получает только уведомления о показе и скрытии.
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Вызывается при повторном отображении представления из кэша.
+     * <p>
+     * Позволяет обновить данные и догрузить те, загрузка которых
+     * была прервана при уходе со страницы или завершилась ошибкой.
+     */
+    default void onViewShown() {
+    }
+
+    /**
+     * Вызывается перед уходом с представления.
+     */
+    default void onViewHidden() {
+    }
+}
@@ -0,0 +1,53 @@
+package com.api.cargosimpleclient.Statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Мультимножество значений со счетчиками вхождений.
+ * <p>
+ * Позволяет поддерживать количество различных значений
+ * при добавлении и удалении элементов за O(1),
+ * без повторного прохода по всей коллекции.
+ *
+ * @param <E> Тип значений
+ */
+public class CountingMultiset<E> {
+
+    private final Map<E, int[]> counts = new HashMap<>();
+
+    /**
+     * Добавление вхождения значения.
+     *
+     * @param value Значение (допускается null)
+     */
+    public void add(E value) {
+        counts.computeIfAbsent(value, _ -> new int[1])[0]++;
+    }
+
+    /**
+     * Удаление вхождения значения.
+     *
+     * @param value Значение (допускается null)
+     */
+    public void remove(E value) {
+        int[] count = counts.get(value);
+        if (count != null && --count[0] == 0) {
+            counts.remove(value);
+        }
+    }
+
+    /**
+     * @return Количество различных значений
+     */
+    public int distinctCount() {
+        return counts.size();
+    }
+
+    /**
+     * Очистка мультимножества.
+     */
+    public void clear() {
+        counts.clear();
+    }
+}
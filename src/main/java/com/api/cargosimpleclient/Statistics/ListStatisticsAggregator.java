@@ -0,0 +1,82 @@
+package com.api.cargosimpleclient.Statistics;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Базовый агрегатор статистики, обновляемый по событиям изменения списка.
+ * <p>
+ * Подписывается на {@link ListChangeListener} наблюдаемого списка и
+ * учитывает только добавленные и удаленные элементы, поэтому стоимость
+ * пересчета пропорциональна числу изменений, а не размеру списка.
+ * <p>
+ * Элементы списка не должны изменяться на месте без события списка,
+ * иначе вычтенный при удалении вклад не совпадет с добавленным.
+ *
+ * @param <T> Тип элементов списка
+ */
+public abstract class ListStatisticsAggregator<T> implements ListChangeListener<T> {
+
+    private Runnable onUpdated = () -> {};
+
+    /**
+     * Подключение агрегатора к списку.
+     * <p>
+     * Учитывает уже находящиеся в списке элементы
+     * и подписывается на последующие изменения.
+     *
+     * @param list Наблюдаемый список
+     */
+    public void attach(ObservableList<T> list) {
+        reset();
+        for (T item : list) {
+            add(item);
+        }
+        list.addListener(this);
+        onUpdated.run();
+    }
+
+    /**
+     * Установка обработчика, вызываемого после применения изменений.
+     *
+     * @param onUpdated Обработчик обновления статистики
+     */
+    public void setOnUpdated(Runnable onUpdated) {
+        this.onUpdated = onUpdated;
+    }
+
+    @Override
+    public void onChanged(Change<? extends T> change) {
+        while (change.next()) {
+            if (change.wasPermutated() || change.wasUpdated()) {
+                continue;
+            }
+            for (T item : change.getRemoved()) {
+                remove(item);
+            }
+            for (T item : change.getAddedSubList()) {
+                add(item);
+            }
+        }
+        onUpdated.run();
+    }
+
+    /**
+     * Учет добавленного элемента.
+     *
+     * @param item Элемент списка
+     */
+    protected abstract void add(T item);
+
+    /**
+     * Исключение удаленного элемента.
+     *
+     * @param item Элемент списка
+     */
+    protected abstract void remove(T item);
+
+    /**
+     * Сброс накопленных значений.
+     */
+    protected abstract void reset();
+}
@@ -0,0 +1,95 @@
+package com.api.cargosimpleclient.Statistics;
+
+import com.api.cargosimpleclient.DTO.Money;
+import com.api.cargosimpleclient.DTO.ProductDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Инкрементальная статистика по товарам.
+ * <p>
+ * Поддерживает суммы цен и уровней запасов, а также количество
+ * различных категорий и производителей. Суммы цен ведутся
+ * в минимальных единицах ({@link Money}), поэтому обработка
+ * изменений списка не создает объектов.
+ */
+public class ProductStatistics extends ListStatisticsAggregator<ProductDTO> {
+
+    private final CountingMultiset<String> categories = new CountingMultiset<>();
+    private final CountingMultiset<String> manufacturers = new CountingMultiset<>();
+
+    private int count;
+    private long totalPurchasePrice;
+    private long totalSellingPrice;
+    private long totalMinStockLevel;
+    private long totalMaxStockLevel;
+
+    @Override
+    protected void add(ProductDTO product) {
+        count++;
+        totalPurchasePrice += Money.orZero(product.purchasePriceMinorUnits());
+        totalSellingPrice += Money.orZero(product.sellingPriceMinorUnits());
+        totalMinStockLevel += product.getMinStockLevel();
+        totalMaxStockLevel += product.getMaxStockLevel();
+        categories.add(product.getCategory());
+        manufacturers.add(product.getManufacturer());
+    }
+
+    @Override
+    protected void remove(ProductDTO product) {
+        count--;
+        totalPurchasePrice -= Money.orZero(product.purchasePriceMinorUnits());
+        totalSellingPrice -= Money.orZero(product.sellingPriceMinorUnits());
+        totalMinStockLevel -= product.getMinStockLevel();
+        totalMaxStockLevel -= product.getMaxStockLevel();
+        categories.remove(product.getCategory());
+        manufacturers.remove(product.getManufacturer());
+    }
+
+    @Override
+    protected void reset() {
+        count = 0;
+        totalPurchasePrice = 0;
+        totalSellingPrice = 0;
+        totalMinStockLevel = 0;
+        totalMaxStockLevel = 0;
+        categories.clear();
+        manufacturers.clear();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public BigDecimal getAveragePurchasePrice() {
+        return average(totalPurchasePrice);
+    }
+
+    public BigDecimal getAverageSellingPrice() {
+        return average(totalSellingPrice);
+    }
+
+    public BigDecimal getAverageMargin() {
+        return average(totalSellingPrice - totalPurchasePrice);
+    }
+
+    public int getCategoryCount() {
+        return categories.distinctCount();
+    }
+
+    public int getManufacturerCount() {
+        return manufacturers.distinctCount();
+    }
+
+    public double getAverageMinStockLevel() {
+        return count > 0 ? (double) totalMinStockLevel / count : 0.0;
+    }
+
+    public double getAverageMaxStockLevel() {
+        return count > 0 ? (double) totalMaxStockLevel / count : 0.0;
+    }
+
+    private BigDecimal average(long totalMinorUnits) {
+        return Money.toBigDecimal(count > 0 ? Money.divideHalfUp(totalMinorUnits, count) : 0);
+    }
+}
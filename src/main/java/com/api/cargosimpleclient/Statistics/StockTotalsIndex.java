@@ -0,0 +1,61 @@
+package com.api.cargosimpleclient.Statistics;
+
+import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.api.cargosimpleclient.Services.StockIndexService.StockTotals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Инкрементальный индекс складских остатков по товарам.
+ * <p>
+ * Поддерживает для каждого товара суммарное текущее и
+ * зарезервированное количество по всем складам. В отличие от
+ * {@link com.api.cargosimpleclient.Services.StockIndexService},
+ * строится по уже загруженному списку остатков и обновляется
+ * при его изменении без обращения к сети.
+ */
+public class StockTotalsIndex extends ListStatisticsAggregator<WarehouseInStockDTO> {
+
+    /**
+     * Для каждого товара: текущее количество, зарезервированное количество, число записей.
+     */
+    private final Map<Long, int[]> totals = new HashMap<>();
+
+    @Override
+    protected void add(WarehouseInStockDTO stock) {
+        int[] sum = totals.computeIfAbsent(stock.getProductId(), _ -> new int[3]);
+        sum[0] += stock.getCurrentQuantity();
+        sum[1] += stock.getReservedQuantity();
+        sum[2]++;
+    }
+
+    @Override
+    protected void remove(WarehouseInStockDTO stock) {
+        int[] sum = totals.get(stock.getProductId());
+        if (sum == null) {
+            return;
+        }
+        sum[0] -= stock.getCurrentQuantity();
+        sum[1] -= stock.getReservedQuantity();
+        if (--sum[2] == 0) {
+            totals.remove(stock.getProductId());
+        }
+    }
+
+    @Override
+    protected void reset() {
+        totals.clear();
+    }
+
+    /**
+     * Получение остатков товара.
+     *
+     * @param productId Идентификатор товара
+     * @return Остатки товара; нулевые, если товара нет на складах
+     */
+    public StockTotals totalsFor(Long productId) {
+        int[] sum = totals.get(productId);
+        return sum == null ? StockTotals.EMPTY : new StockTotals(sum[0], sum[1]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.api.cargosimpleclient.Statistics;
+
+import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+
+/**
+ * Инкрементальная статистика по товарам на складах.
+ * <p>
+ * Поддерживает количество различных товаров и складов,
+ * а также суммарное текущее и зарезервированное количество.
+ */
+public class WarehouseInStockStatistics extends ListStatisticsAggregator<WarehouseInStockDTO> {
+
+    private final CountingMultiset<Long> products = new CountingMultiset<>();
+    private final CountingMultiset<Long> warehouses = new CountingMultiset<>();
+
+    private int count;
+    private long totalQuantity;
+    private long totalReserved;
+
+    @Override
+    protected void add(WarehouseInStockDTO stock) {
+        count++;
+        products.add(stock.getProductId());
+        warehouses.add(stock.getWarehouseId());
+        totalQuantity += stock.getCurrentQuantity();
+        totalReserved += stock.getReservedQuantity();
+    }
+
+    @Override
+    protected void remove(WarehouseInStockDTO stock) {
+        count--;
+        products.remove(stock.getProductId());
+        warehouses.remove(stock.getWarehouseId());
+        totalQuantity -= stock.getCurrentQuantity();
+        totalReserved -= stock.getReservedQuantity();
+    }
+
+    @Override
+    protected void reset() {
+        count = 0;
+        totalQuantity = 0;
+        totalReserved = 0;
+        products.clear();
+        warehouses.clear();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getUniqueProductCount() {
+        return products.distinctCount();
+    }
+
+    public int getUniqueWarehouseCount() {
+        return warehouses.distinctCount();
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public long getTotalReserved() {
+        return totalReserved;
+    }
+}
@@ -0,0 +1,57 @@
+package com.api.cargosimpleclient.Statistics;
+
+import com.api.cargosimpleclient.DTO.WarehouseDTO;
+import com.api.cargosimpleclient.DTO.WarehouseStatus;
+
+/**
+ * Инкрементальная статистика по складам.
+ * <p>
+ * Поддерживает количество складов по статусам и суммарную вместимость.
+ */
+public class WarehouseStatistics extends ListStatisticsAggregator<WarehouseDTO> {
+
+    private int count;
+    private int activeCount;
+    private long totalCapacity;
+
+    @Override
+    protected void add(WarehouseDTO warehouse) {
+        count++;
+        if (warehouse.getStatus() == WarehouseStatus.ACTIVE) {
+            activeCount++;
+        }
+        totalCapacity += warehouse.getCapacity();
+    }
+
+    @Override
+    protected void remove(WarehouseDTO warehouse) {
+        count--;
+        if (warehouse.getStatus() == WarehouseStatus.ACTIVE) {
+            activeCount--;
+        }
+        totalCapacity -= warehouse.getCapacity();
+    }
+
+    @Override
+    protected void reset() {
+        count = 0;
+        activeCount = 0;
+        totalCapacity = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getInactiveCount() {
+        return count - activeCount;
+    }
+
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+}
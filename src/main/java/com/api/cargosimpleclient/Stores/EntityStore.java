@@ -0,0 +1,712 @@
+package com.api.cargosimpleclient.Stores;
+
+import com.api.cargosimpleclient.Paging.PagedDataSource;
+import com.api.cargosimpleclient.Paging.PagedList;
+import com.api.cargosimpleclient.Services.ApiResponseException;
+import com.api.cargosimpleclient.Services.BackgroundTaskService;
+import com.api.cargosimpleclient.Services.BatchingListAppender;
+import com.api.cargosimpleclient.Services.DeltaSyncService;
+import com.api.cargosimpleclient.Services.ResponseCacheService;
+import com.api.cargosimpleclient.Services.SnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Общее хранилище записей одного типа для всех представлений.
+ * <p>
+ * Владеет единственным списком записей, загруженным с сервера,
+ * и единственной загрузкой этого списка. Представления не держат
+ * собственных копий, а строят поверх {@link #items()} свои
+ * фильтрованные и сортированные списки, поэтому результаты
+ * добавления, изменения и удаления, примененные через
+ * {@link #put(Object)} и {@link #remove(Long)}, сразу видны
+ * на всех открытых страницах без повторной загрузки.
+ * <p>
+ * Позиции записей индексируются по идентификатору и поддерживаются
+ * по событиям изменения списка, поэтому поиск, замена и удаление
+ * записи по идентификатору не требуют прохода по списку. При повторной
+ * загрузке записи, значения которых не изменились, заменяются уже
+ * имеющимися экземплярами, и созданные для них JavaFX Properties
+ * переиспользуются.
+ * <p>
+ * Загруженный список обновляется через {@link #refresh(Consumer)}
+ * минимальным набором добавлений, замен и удалений: если сервер
+ * поддерживает получение изменений ({@link DeltaSyncService}),
+ * запрашиваются только записи, измененные после предыдущей
+ * синхронизации, иначе полученный список сравнивается с текущим
+ * по идентификаторам. Неизменившиеся строки таблиц при этом
+ * не перерисовываются, а выделение сохраняется.
+ * <p>
+ * Полностью загруженный список сохраняется на диск ({@link SnapshotService}).
+ * Первая загрузка после запуска или входа отображает сохраненный снимок
+ * сразу, а затем обновляет его с сервера как обычно; момент, на который
+ * данные актуальны, доступен через {@link #dataAsOfProperty()}.
+ * <p>
+ * Все методы вызываются из JavaFX Application Thread.
+ *
+ * @param <T> Тип записей
+ */
+public abstract class EntityStore<T> {
+
+    private static final List<EntityStore<?>> STORES = new CopyOnWriteArrayList<>();
+
+    /**
+     * Состояние данных хранилища.
+     */
+    public enum State {
+        /** Данные не загружались или загрузка была отменена */
+        EMPTY,
+        /** Выполняется загрузка, записи добавляются по мере получения */
+        LOADING,
+        /** Загружен полный список */
+        LOADED,
+        /** Набор слишком велик и открыт в постраничном режиме, см. {@link #getPagedList()} */
+        PAGED,
+        /** Загрузка завершилась ошибкой */
+        FAILED
+    }
+
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final ObservableList<T> readOnlyItems = FXCollections.unmodifiableObservableList(items);
+    private final Map<Long, Integer> indexById = new HashMap<>();
+
+    private final ReadOnlyObjectWrapper<State> state = new ReadOnlyObjectWrapper<>(State.EMPTY);
+    private final ReadOnlyLongWrapper received = new ReadOnlyLongWrapper();
+    private final ReadOnlyObjectWrapper<Instant> dataAsOf = new ReadOnlyObjectWrapper<>();
+
+    private final String path;
+    private final Class<T> type;
+    private final PagedDataSource<T> pagedDataSource;
+    private final Function<T, Long> idOf;
+    private final BiPredicate<T, T> sameValues;
+
+    private final BackgroundTaskService backgroundTaskService = new BackgroundTaskService();
+    private final DeltaSyncService deltaSyncService = new DeltaSyncService();
+    private final ResponseCacheService responseCacheService = new ResponseCacheService();
+    private final SnapshotService snapshotService = new SnapshotService();
+
+    private BatchingListAppender<T> loadingAppender;
+    private Future<?> loadTask;
+    private Future<?> refreshTask;
+    private Long syncVersion;
+    private boolean snapshotTried;
+    private Object restoreToken;
+    private PagedList<T> pagedList;
+    private Consumer<Throwable> onLoadFailed = _ -> {};
+
+    /**
+     * @param path Путь к списку относительно адреса сервера
+     * @param type Класс записей
+     * @param idOf Получение идентификатора записи
+     * @param sameValues Сравнение значений двух записей с одинаковым идентификатором
+     */
+    protected EntityStore(String path, Class<T> type, Function<T, Long> idOf, BiPredicate<T, T> sameValues) {
+        this.path = path;
+        this.type = type;
+        this.pagedDataSource = new PagedDataSource<>(path, type);
+        this.idOf = idOf;
+        this.sameValues = sameValues;
+        items.addListener(this::updateIndex);
+        STORES.add(this);
+    }
+
+    /**
+     * Сброс всех хранилищ, например при выходе пользователя.
+     */
+    public static void clearAll() {
+        for (EntityStore<?> store : STORES) {
+            store.clear();
+        }
+    }
+
+    /**
+     * Список записей хранилища.
+     * <p>
+     * Список доступен только для чтения; изменения выполняются
+     * через {@link #put(Object)} и {@link #remove(Long)}.
+     * В постраничном режиме список пуст.
+     *
+     * @return Наблюдаемый список записей
+     */
+    public ObservableList<T> items() {
+        return readOnlyItems;
+    }
+
+    public ReadOnlyObjectProperty<State> stateProperty() {
+        return state.getReadOnlyProperty();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Число записей, полученных текущей загрузкой.
+     *
+     * @return Свойство для отображения хода загрузки
+     */
+    public ReadOnlyLongProperty receivedProperty() {
+        return received.getReadOnlyProperty();
+    }
+
+    /**
+     * Момент, на который данные списка совпадали с сервером.
+     * <p>
+     * Обновляется каждой успешной загрузкой и обновлением. Пока
+     * отображается снимок, сохраненный в прошлом сеансе, содержит
+     * время этого снимка.
+     *
+     * @return Свойство момента актуальности; null, если полного списка нет
+     */
+    public ReadOnlyObjectProperty<Instant> dataAsOfProperty() {
+        return dataAsOf.getReadOnlyProperty();
+    }
+
+    public Instant getDataAsOf() {
+        return dataAsOf.get();
+    }
+
+    /**
+     * @return Виртуальный список в постраничном режиме; null в остальных состояниях
+     */
+    public PagedList<T> getPagedList() {
+        return pagedList;
+    }
+
+    /**
+     * Получение записи по идентификатору.
+     *
+     * @param id Идентификатор записи
+     * @return Запись или null, если ее нет в списке
+     */
+    public T get(Long id) {
+        Integer index = indexById.get(id);
+        return index == null ? null : items.get(index);
+    }
+
+    /**
+     * Загрузка данных, если они еще не загружены.
+     * <p>
+     * Уже загруженные данные и незавершенная загрузка используются
+     * повторно, поэтому вызов из нескольких представлений выполняет
+     * не более одного запроса. Уход со страницы загрузку не прерывает,
+     * а загрузка, отмененная при выходе пользователя, запускается заново. Первая загрузка отображает
+     * сохраненный снимок, если он есть, и обновляет его с сервера.
+     *
+     * @param onLoadFailed Обработчик ошибки загрузки; заменяет обработчик предыдущего вызова
+     */
+    public void ensureLoaded(Consumer<Throwable> onLoadFailed) {
+        this.onLoadFailed = onLoadFailed;
+
+        State current = state.get();
+        if (current == State.LOADED || current == State.PAGED) {
+            return;
+        }
+        if (current == State.LOADING && loadTask != null && !loadTask.isCancelled()) {
+            return;
+        }
+        if (current == State.EMPTY && !snapshotTried) {
+            restore();
+            return;
+        }
+        load();
+    }
+
+    /**
+     * Повторная загрузка данных с сервера.
+     *
+     * @param onLoadFailed Обработчик ошибки загрузки; заменяет обработчик предыдущего вызова
+     */
+    public void reload(Consumer<Throwable> onLoadFailed) {
+        this.onLoadFailed = onLoadFailed;
+        load();
+    }
+
+    /**
+     * Обновление загруженного списка с сервера.
+     * <p>
+     * Применяет к списку только разницу с данными сервера, поэтому
+     * стоимость обновления зависит от числа изменений, а не от размера
+     * списка. Если данные еще не загружены, выполняется обычная загрузка.
+     * В постраничном режиме и во время загрузки вызов ничего не делает:
+     * страницы и так запрашиваются с сервера по мере прокрутки.
+     *
+     * @param onLoadFailed Обработчик ошибки загрузки; заменяет обработчик предыдущего вызова
+     */
+    public void refresh(Consumer<Throwable> onLoadFailed) {
+        State current = state.get();
+        if (current == State.EMPTY || current == State.FAILED) {
+            ensureLoaded(onLoadFailed);
+            return;
+        }
+        this.onLoadFailed = onLoadFailed;
+        if (current != State.LOADED || refreshTask != null && !refreshTask.isDone()) {
+            return;
+        }
+
+        Long since = syncVersion;
+        refreshTask = backgroundTaskService.submit(
+                () -> fetchChanges(since),
+                this::applyChanges,
+                throwable -> this.onLoadFailed.accept(throwable)
+        );
+    }
+
+    /**
+     * Фоновое обновление загруженного списка по расписанию.
+     * <p>
+     * В отличие от {@link #refresh(Consumer)}, не запускает загрузку
+     * незагруженных данных и не передает ошибки обработчику
+     * представления: ошибка периодического обновления не должна
+     * приводить к диалогу, а обрабатывается планировщиком.
+     *
+     * @param onRefreshed Обработчик завершения; получает число измененных записей
+     * @param onFailed Обработчик ошибки
+     * @param onCancelled Вызывается, если обновление было отменено
+     * @return false, если список не загружен полностью или обновление уже выполняется
+     */
+    boolean refreshInBackground(IntConsumer onRefreshed, Consumer<Throwable> onFailed, Runnable onCancelled) {
+        if (state.get() != State.LOADED || refreshTask != null && !refreshTask.isDone()) {
+            return false;
+        }
+
+        Long since = syncVersion;
+        refreshTask = backgroundTaskService.submit(
+                () -> fetchChanges(since),
+                changes -> onRefreshed.accept(applyChanges(changes)),
+                onFailed,
+                onCancelled
+        );
+        return true;
+    }
+
+    /**
+     * Применение изменений, полученных от сервера без запроса.
+     * <p>
+     * Событие содержит версию, от которой отсчитаны изменения (since).
+     * Если она совпадает с версией последней синхронизации, изменения
+     * применяются вместе с новой версией. Иначе часть изменений была
+     * пропущена: полученные записи применяются, а недостающее
+     * запрашивается фоновым обновлением. Не полностью загруженные
+     * хранилища события не затрагивают.
+     *
+     * @param event Событие с полями since, version, changed и deleted
+     * @throws IOException Если записи события не удалось разобрать
+     */
+    void applyPushed(JsonNode event) throws IOException {
+        if (state.get() != State.LOADED) {
+            return;
+        }
+
+        DeltaSyncService.Delta<T> delta = deltaSyncService.readDelta(event, type);
+        boolean refreshing = refreshTask != null && !refreshTask.isDone();
+        JsonNode since = event.get("since");
+        boolean consecutive = !refreshing && syncVersion != null
+                && since != null && since.asLong() == syncVersion;
+
+        applyChanges(new Changes<>(consecutive ? delta.version() : syncVersion,
+                delta.changed(), delta.deleted(), false));
+        if (!consecutive && !refreshing) {
+            refreshInBackground(_ -> {}, _ -> {}, () -> {});
+        }
+    }
+
+    /**
+     * @return Путь к списку относительно адреса сервера
+     */
+    String path() {
+        return path;
+    }
+
+    /**
+     * Применение добавленной или измененной на сервере записи.
+     * <p>
+     * Запись с тем же идентификатором заменяется, иначе добавляется
+     * в конец списка. В постраничном режиме локальный список
+     * не отображается, поэтому данные загружаются заново.
+     *
+     * @param item Запись, полученная в ответе сервера
+     */
+    public void put(T item) {
+        merge(item);
+        reloadIfPaged();
+    }
+
+    /**
+     * Применение нескольких добавленных или измененных записей.
+     * <p>
+     * Новые записи добавляются одним изменением списка.
+     *
+     * @param changed Записи, полученные в ответе сервера
+     */
+    public void putAll(Collection<? extends T> changed) {
+        List<T> added = new ArrayList<>();
+        for (T item : changed) {
+            if (indexById.containsKey(idOf.apply(item))) {
+                merge(item);
+            } else {
+                added.add(item);
+            }
+        }
+        items.addAll(added);
+        reloadIfPaged();
+    }
+
+    /**
+     * Применение удаления записи на сервере.
+     *
+     * @param id Идентификатор удаленной записи
+     */
+    public void remove(Long id) {
+        Integer index = indexById.get(id);
+        if (index != null) {
+            items.remove(index.intValue());
+        }
+        reloadIfPaged();
+    }
+
+    /**
+     * Применение удаления нескольких записей одним изменением списка.
+     *
+     * @param ids Идентификаторы удаленных записей
+     */
+    public void removeAll(Collection<Long> ids) {
+        Set<Long> removed = ids instanceof Set<Long> set ? set : new HashSet<>(ids);
+        items.removeIf(item -> removed.contains(idOf.apply(item)));
+        reloadIfPaged();
+    }
+
+    /**
+     * Передача ошибки текущему обработчику ошибок загрузки.
+     *
+     * @param throwable Ошибка загрузки связанных данных
+     */
+    protected void loadFailed(Throwable throwable) {
+        onLoadFailed.accept(throwable);
+    }
+
+    private void merge(T item) {
+        Integer index = indexById.get(idOf.apply(item));
+        if (index == null) {
+            items.add(item);
+        } else if (items.get(index) != item) {
+            items.set(index, item);
+        }
+    }
+
+    /**
+     * Поддержка индекса позиций по событиям изменения списка.
+     * <p>
+     * Добавление в конец и замена обновляют только затронутые позиции;
+     * после удаления или вставки в середину пересчитываются
+     * позиции от места изменения до конца списка.
+     */
+    private void updateIndex(ListChangeListener.Change<? extends T> change) {
+        int reindexFrom = Integer.MAX_VALUE;
+        while (change.next()) {
+            for (T item : change.getRemoved()) {
+                indexById.remove(idOf.apply(item));
+            }
+            boolean inPlace = change.getRemovedSize() == change.getAddedSize()
+                    || change.getTo() == items.size();
+            if (!inPlace || change.wasPermutated()) {
+                reindexFrom = Math.min(reindexFrom, change.getFrom());
+                continue;
+            }
+            for (int i = change.getFrom(); i < change.getTo(); i++) {
+                indexById.put(idOf.apply(items.get(i)), i);
+            }
+        }
+        for (int i = reindexFrom; i < items.size(); i++) {
+            indexById.put(idOf.apply(items.get(i)), i);
+        }
+    }
+
+    /**
+     * Замена полученной записи уже имеющимся экземпляром с теми же значениями.
+     * <p>
+     * Вызывается в фоновом потоке загрузки для снимка записей,
+     * сделанного до ее начала.
+     */
+    private T reuse(Map<Long, T> previous, T item) {
+        T existing = previous.get(idOf.apply(item));
+        return existing != null && sameValues.test(existing, item) ? existing : item;
+    }
+
+    /**
+     * Получение изменений с сервера.
+     * <p>
+     * Выполняется вне JavaFX Application Thread.
+     *
+     * @param since Версия предыдущей синхронизации или null
+     * @return Изменения либо полный список для сравнения
+     */
+    private Changes<T> fetchChanges(Long since) throws IOException, InterruptedException {
+        if (since != null) {
+            DeltaSyncService.Delta<T> delta = deltaSyncService.changesSince(path, since, type);
+            // Версия меньше известной означает, что данные сервера были
+            // пересозданы, и изменения от since ничего не говорят о них
+            if (delta != null && delta.version() >= since) {
+                return new Changes<>(delta.version(), delta.changed(), delta.deleted(), false);
+            }
+        }
+
+        Long version = currentVersion();
+        List<T> all = new ArrayList<>();
+        if (!responseCacheService.readEachIfModified(path, type, all::add)) {
+            return new Changes<>(version, List.of(), List.of(), false);
+        }
+        return new Changes<>(version, all, List.of(), true);
+    }
+
+    /**
+     * Получение версии данных перед полной загрузкой.
+     * <p>
+     * Ошибка сервера при запросе версии не прерывает загрузку:
+     * следующее обновление в этом случае сравнит полный список.
+     */
+    private Long currentVersion() throws IOException, InterruptedException {
+        try {
+            return deltaSyncService.currentVersion(path);
+        } catch (ApiResponseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Применение изменений минимальным набором операций над списком.
+     * <p>
+     * Удаления и добавления применяются одним изменением списка каждое,
+     * замена выполняется только для записей с изменившимися значениями.
+     *
+     * @return Число удаленных, замененных и добавленных записей
+     */
+    private int applyChanges(Changes<T> changes) {
+        Set<Long> removed = new HashSet<>(changes.deleted());
+        if (changes.complete()) {
+            removed.addAll(indexById.keySet());
+            for (T item : changes.items()) {
+                removed.remove(idOf.apply(item));
+            }
+        }
+        int before = items.size();
+        if (!removed.isEmpty()) {
+            items.removeIf(item -> removed.contains(idOf.apply(item)));
+        }
+        int changed = before - items.size();
+
+        List<T> added = new ArrayList<>();
+        for (T item : changes.items()) {
+            Integer index = indexById.get(idOf.apply(item));
+            if (index == null) {
+                added.add(item);
+            } else {
+                T existing = items.get(index);
+                if (existing != item && !sameValues.test(existing, item)) {
+                    items.set(index, item);
+                    changed++;
+                }
+            }
+        }
+        items.addAll(added);
+
+        syncVersion = changes.version();
+        dataAsOf.set(Instant.now());
+        if (changed + added.size() > 0) {
+            saveSnapshot();
+        }
+        return changed + added.size();
+    }
+
+    private void reloadIfPaged() {
+        if (state.get() == State.PAGED) {
+            load();
+        }
+    }
+
+    private void load() {
+        stopLoading();
+
+        Map<Long, T> previous = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            previous.put(idOf.apply(item), item);
+        }
+
+        pagedList = null;
+        items.clear();
+        received.set(0);
+        dataAsOf.set(null);
+        state.set(State.LOADING);
+
+        BatchingListAppender<T> appender = new BatchingListAppender<>(items, received::set);
+        loadingAppender = appender;
+        appender.start();
+
+        loadTask = backgroundTaskService.submit(
+                () -> {
+                    Long version = currentVersion();
+                    PagedList<T> loadedPagedList = pagedDataSource.open(item -> appender.offer(reuse(previous, item)));
+                    return new Loaded<>(loadedPagedList, version);
+                },
+                loaded -> {
+                    if (loadingAppender != appender) {
+                        return;
+                    }
+                    appender.finish();
+                    loadingAppender = null;
+                    pagedList = loaded.pagedList();
+                    if (pagedList == null) {
+                        syncVersion = loaded.version();
+                        dataAsOf.set(Instant.now());
+                        saveSnapshot();
+                        state.set(State.LOADED);
+                    } else {
+                        snapshotService.delete(path);
+                        state.set(State.PAGED);
+                    }
+                },
+                throwable -> {
+                    if (loadingAppender != appender) {
+                        return;
+                    }
+                    appender.finish();
+                    loadingAppender = null;
+                    state.set(State.FAILED);
+                    onLoadFailed.accept(throwable);
+                },
+                () -> {
+                    if (loadingAppender == appender) {
+                        clear();
+                    }
+                }
+        );
+    }
+
+    /**
+     * Отображение снимка, сохраненного в прошлом сеансе.
+     * <p>
+     * Снимок читается в фоне; записи устанавливаются одним изменением
+     * списка, после чего хранилище считается загруженным и сразу
+     * обновляется с сервера с версии снимка. Если снимка нет или
+     * он не читается, выполняется обычная загрузка.
+     */
+    private void restore() {
+        stopLoading();
+        snapshotTried = true;
+        state.set(State.LOADING);
+
+        Object token = new Object();
+        restoreToken = token;
+        loadTask = backgroundTaskService.submit(
+                () -> snapshotService.read(path, type),
+                snapshot -> {
+                    if (restoreToken != token) {
+                        return;
+                    }
+                    restoreToken = null;
+                    if (snapshot == null) {
+                        load();
+                        return;
+                    }
+                    items.setAll(snapshot.items());
+                    received.set(items.size());
+                    syncVersion = snapshot.version();
+                    dataAsOf.set(snapshot.asOf());
+                    state.set(State.LOADED);
+                    refresh(onLoadFailed);
+                },
+                _ -> {
+                    if (restoreToken == token) {
+                        load();
+                    }
+                },
+                () -> {
+                    if (restoreToken == token) {
+                        clear();
+                    }
+                }
+        );
+    }
+
+    private void saveSnapshot() {
+        snapshotService.save(path, type, this::takeSnapshot);
+    }
+
+    /**
+     * Копия загруженного списка для записи снимка; снимается
+     * не при каждом изменении, а когда подходит время записи.
+     */
+    private SnapshotService.Snapshot<T> takeSnapshot() {
+        if (state.get() != State.LOADED) {
+            return null;
+        }
+        return new SnapshotService.Snapshot<>(dataAsOf.get(), syncVersion, List.copyOf(items));
+    }
+
+    private void clear() {
+        stopLoading();
+        snapshotTried = false;
+        pagedList = null;
+        items.clear();
+        received.set(0);
+        dataAsOf.set(null);
+        state.set(State.EMPTY);
+    }
+
+    private void stopLoading() {
+        syncVersion = null;
+        restoreToken = null;
+        if (refreshTask != null) {
+            refreshTask.cancel(true);
+            refreshTask = null;
+        }
+        if (loadingAppender != null) {
+            loadingAppender.cancel();
+            loadingAppender = null;
+        }
+        if (loadTask != null) {
+            loadTask.cancel(true);
+            loadTask = null;
+        }
+    }
+
+    /**
+     * Результат загрузки: виртуальный список и версия данных,
+     * полученная до начала загрузки.
+     */
+    private record Loaded<T>(PagedList<T> pagedList, Long version) {
+    }
+
+    /**
+     * Изменения для применения к списку.
+     *
+     * @param version Версия данных после применения или null
+     * @param items Добавленные и измененные записи
+     * @param deleted Идентификаторы удаленных записей
+     * @param complete true, если items содержит полный список, и отсутствующие в нем записи удалены
+     */
+    private record Changes<T>(Long version, List<T> items, List<Long> deleted, boolean complete) {
+    }
+}
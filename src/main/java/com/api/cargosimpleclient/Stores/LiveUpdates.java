@@ -0,0 +1,195 @@
+package com.api.cargosimpleclient.Stores;
+
+import com.api.cargosimpleclient.Services.ApiResponseException;
+import com.api.cargosimpleclient.Services.CodecService;
+import com.api.cargosimpleclient.Services.EventStreamService;
+import com.api.cargosimpleclient.Services.EventStreamService.Event;
+import com.api.cargosimpleclient.Services.EventStreamService.EventStream;
+import com.fasterxml.jackson.databind.JsonNode;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Получение изменений хранилищ от сервера по потоку событий.
+ * <p>
+ * Подключается к {@value #EVENTS_PATH} и передает события хранилищам:
+ * имя события - путь списка, например {@code /api/warehouse-stocks},
+ * данные - изменения в формате {@link com.api.cargosimpleclient.Services.DeltaSyncService}
+ * с дополнительным полем since:
+ * <pre>
+ * event: /api/warehouse-stocks
+ * data: {"since": 41, "version": 42, "changed": [{...}], "deleted": []}
+ * </pre>
+ * Пока соединение открыто, {@link RefreshScheduler} опрашивает хранилища
+ * с максимальным интервалом, а при разрыве возвращается к обычному опросу.
+ * Разорванное соединение восстанавливается с нарастающей задержкой.
+ * Если сервер поток событий не поддерживает, попытки прекращаются
+ * до конца сеанса. Отключается свойством {@value #ENABLED_PROPERTY}.
+ * <p>
+ * Методы, кроме чтения потока, вызываются из JavaFX Application Thread.
+ */
+class LiveUpdates {
+
+    private static final String EVENTS_PATH = "/api/events";
+    private static final String ENABLED_PROPERTY = "cargo.push.enabled";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+
+    private static final long MIN_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final Map<String, EntityStore<?>> storesByPath = new HashMap<>();
+    private final EventStreamService eventStreamService = new EventStreamService();
+    private final ReadOnlyBooleanWrapper connected = new ReadOnlyBooleanWrapper();
+
+    private Thread reader;
+    private volatile EventStream stream;
+    private boolean unsupported;
+
+    LiveUpdates(List<EntityStore<?>> stores) {
+        for (EntityStore<?> store : stores) {
+            storesByPath.put(store.path(), store);
+        }
+    }
+
+    /**
+     * @return Свойство, равное true, пока поток событий открыт
+     */
+    ReadOnlyBooleanProperty connectedProperty() {
+        return connected.getReadOnlyProperty();
+    }
+
+    boolean isConnected() {
+        return connected.get();
+    }
+
+    void start() {
+        if (!ENABLED || unsupported || reader != null) {
+            return;
+        }
+        reader = Thread.ofVirtual().name("cargo-live-updates").start(this::read);
+    }
+
+    void stop() {
+        unsupported = false;
+        if (reader == null) {
+            return;
+        }
+        reader.interrupt();
+        reader = null;
+        closeStream();
+        connected.set(false);
+    }
+
+    /**
+     * Чтение потока событий с переподключением.
+     * <p>
+     * Выполняется в отдельном виртуальном потоке, а не через
+     * {@link com.api.cargosimpleclient.Services.BackgroundTaskService},
+     * чтобы переходы между страницами не прерывали соединение.
+     */
+    private void read() {
+        Thread current = Thread.currentThread();
+        long retryMillis = MIN_RETRY_MILLIS;
+
+        while (!current.isInterrupted()) {
+            try (EventStream opened = eventStreamService.open(EVENTS_PATH)) {
+                stream = opened;
+                retryMillis = MIN_RETRY_MILLIS;
+                Platform.runLater(() -> setConnected(current, true));
+
+                for (Event event; (event = opened.next()) != null; ) {
+                    dispatch(current, event);
+                }
+            } catch (ApiResponseException e) {
+                if (isUnsupported(e.getStatusCode())) {
+                    Platform.runLater(() -> markUnsupported(current));
+                    return;
+                }
+            } catch (IOException e) {
+                // Соединение разорвано, переподключение ниже
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                stream = null;
+            }
+
+            Platform.runLater(() -> setConnected(current, false));
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * Разбор события в потоке чтения и передача его хранилищу
+     * в JavaFX Application Thread. Неразобранные события пропускаются:
+     * пропущенные изменения догрузит следующее обновление хранилища.
+     */
+    private void dispatch(Thread current, Event event) {
+        EntityStore<?> store = storesByPath.get(event.name());
+        if (store == null) {
+            return;
+        }
+
+        JsonNode data;
+        try {
+            data = CodecService.readTree(new ByteArrayInputStream(event.data().getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            return;
+        }
+
+        Platform.runLater(() -> {
+            if (reader != current) {
+                return;
+            }
+            try {
+                store.applyPushed(data);
+            } catch (IOException e) {
+                // См. выше
+            }
+        });
+    }
+
+    private void setConnected(Thread current, boolean value) {
+        if (reader == current) {
+            connected.set(value);
+        }
+    }
+
+    private void markUnsupported(Thread current) {
+        if (reader == current) {
+            unsupported = true;
+            reader = null;
+            connected.set(false);
+        }
+    }
+
+    private void closeStream() {
+        EventStream opened = stream;
+        if (opened == null) {
+            return;
+        }
+        try {
+            opened.close();
+        } catch (IOException e) {
+            // Поток уже закрыт
+        }
+    }
+
+    private static boolean isUnsupported(int statusCode) {
+        return statusCode == 404 || statusCode == 405 || statusCode == 406 || statusCode == 501;
+    }
+}
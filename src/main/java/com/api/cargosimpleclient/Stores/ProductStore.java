@@ -0,0 +1,30 @@
+package com.api.cargosimpleclient.Stores;
+
+import com.api.cargosimpleclient.DTO.ProductDTO;
+import com.api.cargosimpleclient.Statistics.ProductStatistics;
+
+/**
+ * Общее хранилище товаров.
+ * <p>
+ * Статистика товаров поддерживается по списку хранилища
+ * и используется всеми представлениями.
+ */
+public class ProductStore extends EntityStore<ProductDTO> {
+
+    private static final ProductStore INSTANCE = new ProductStore();
+
+    private final ProductStatistics statistics = new ProductStatistics();
+
+    private ProductStore() {
+        super("/api/products", ProductDTO.class, ProductDTO::getId, ProductDTO::hasSameValues);
+        statistics.attach(items());
+    }
+
+    public static ProductStore getInstance() {
+        return INSTANCE;
+    }
+
+    public ProductStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,182 @@
+package com.api.cargosimpleclient.Stores;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ChangeListener;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодическое фоновое обновление загруженных хранилищ.
+ * <p>
+ * Для товаров, складов и складских остатков ведется собственный
+ * интервал опроса, который подстраивается под частоту изменений:
+ * - Обновление, принесшее изменения, сокращает интервал вдвое,
+ *   но не ниже {@value #MIN_INTERVAL_PROPERTY} секунд
+ * - Обновление без изменений увеличивает интервал в полтора раза,
+ *   но не выше {@value #MAX_INTERVAL_PROPERTY} секунд
+ * - Ошибка удваивает интервал
+ * - Интервал не бывает меньше десятикратной длительности последнего
+ *   обновления, поэтому медленный сервер опрашивается реже
+ * <p>
+ * Пока окно свернуто или изменения приходят от сервера по потоку
+ * событий ({@link LiveUpdates}), опрос выполняется с максимальным
+ * интервалом. После разворачивания окна, а также при подключении
+ * и разрыве потока событий хранилища обновляются сразу.
+ * Обновляются только полностью загруженные хранилища: изменения
+ * запрашиваются через {@link com.api.cargosimpleclient.Services.DeltaSyncService},
+ * а полный список - условным запросом, поэтому опрос без изменений
+ * на сервере не загружает и не разбирает данные повторно.
+ * <p>
+ * Все методы вызываются из JavaFX Application Thread.
+ */
+public class RefreshScheduler {
+
+    private static final String MIN_INTERVAL_PROPERTY = "cargo.refresh.min";
+    private static final String MAX_INTERVAL_PROPERTY = "cargo.refresh.max";
+
+    private static final long MIN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong(MIN_INTERVAL_PROPERTY, 5));
+    private static final long MAX_INTERVAL_MILLIS = Math.max(MIN_INTERVAL_MILLIS,
+            TimeUnit.SECONDS.toMillis(Long.getLong(MAX_INTERVAL_PROPERTY, 120)));
+
+    /**
+     * Во сколько раз интервал опроса должен превышать длительность обновления.
+     */
+    private static final int SLOW_SERVER_FACTOR = 10;
+
+    private static final RefreshScheduler INSTANCE = new RefreshScheduler();
+
+    private final List<EntityStore<?>> stores = List.of(
+            ProductStore.getInstance(),
+            WarehouseStore.getInstance(),
+            StockStore.getInstance()
+    );
+
+    private final List<Poller> pollers = stores.stream().map(Poller::new).toList();
+    private final LiveUpdates liveUpdates = new LiveUpdates(stores);
+
+    private final ChangeListener<Boolean> iconifiedListener = (_, _, iconified) -> {
+        if (!iconified) {
+            pollers.forEach(Poller::pollNow);
+        }
+    };
+
+    private Stage stage;
+    private boolean running;
+
+    private RefreshScheduler() {
+        liveUpdates.connectedProperty().addListener((_, _, _) -> pollers.forEach(Poller::pollNow));
+    }
+
+    public static RefreshScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Запуск опроса для окна приложения.
+     * <p>
+     * Повторный вызов для того же окна ничего не делает.
+     *
+     * @param stage Окно, по состоянию которого определяется, свернуто ли приложение
+     */
+    public void start(Stage stage) {
+        if (this.stage != stage) {
+            if (this.stage != null) {
+                this.stage.iconifiedProperty().removeListener(iconifiedListener);
+            }
+            this.stage = stage;
+            stage.iconifiedProperty().addListener(iconifiedListener);
+        }
+        if (!running) {
+            running = true;
+            pollers.forEach(Poller::reset);
+            liveUpdates.start();
+        }
+    }
+
+    /**
+     * Остановка опроса, например при выходе пользователя.
+     */
+    public void stop() {
+        running = false;
+        pollers.forEach(Poller::stop);
+        liveUpdates.stop();
+        if (stage != null) {
+            stage.iconifiedProperty().removeListener(iconifiedListener);
+            stage = null;
+        }
+    }
+
+    /**
+     * @return true, если частый опрос не нужен
+     */
+    private boolean isIdle() {
+        return stage != null && stage.isIconified() || liveUpdates.isConnected();
+    }
+
+    /**
+     * Опрос одного хранилища со своим интервалом.
+     */
+    private class Poller {
+
+        private final EntityStore<?> store;
+        private final PauseTransition timer = new PauseTransition();
+
+        private long intervalMillis = MIN_INTERVAL_MILLIS;
+        private boolean inFlight;
+
+        Poller(EntityStore<?> store) {
+            this.store = store;
+            timer.setOnFinished(_ -> poll());
+        }
+
+        void reset() {
+            intervalMillis = MIN_INTERVAL_MILLIS;
+            schedule();
+        }
+
+        void stop() {
+            timer.stop();
+        }
+
+        void pollNow() {
+            if (running && !inFlight) {
+                timer.stop();
+                poll();
+            }
+        }
+
+        private void schedule() {
+            if (!running) {
+                return;
+            }
+            timer.setDuration(Duration.millis(isIdle() ? MAX_INTERVAL_MILLIS : intervalMillis));
+            timer.playFromStart();
+        }
+
+        private void poll() {
+            long startedNanos = System.nanoTime();
+            inFlight = store.refreshInBackground(
+                    changed -> completed(changed > 0 ? intervalMillis / 2 : intervalMillis * 3 / 2, startedNanos),
+                    _ -> completed(intervalMillis * 2, startedNanos),
+                    () -> {
+                        inFlight = false;
+                        schedule();
+                    }
+            );
+            if (!inFlight) {
+                schedule();
+            }
+        }
+
+        private void completed(long nextIntervalMillis, long startedNanos) {
+            inFlight = false;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            long interval = Math.max(nextIntervalMillis, elapsedMillis * SLOW_SERVER_FACTOR);
+            intervalMillis = Math.clamp(interval, MIN_INTERVAL_MILLIS, MAX_INTERVAL_MILLIS);
+            schedule();
+        }
+    }
+}
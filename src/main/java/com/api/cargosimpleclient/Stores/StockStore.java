@@ -0,0 +1,193 @@
+package com.api.cargosimpleclient.Stores;
+
+import com.api.cargosimpleclient.DTO.WarehouseInStockDTO;
+import com.api.cargosimpleclient.Services.BackgroundTaskService;
+import com.api.cargosimpleclient.Services.StockIndexService;
+import com.api.cargosimpleclient.Services.StockIndexService.StockTotals;
+import com.api.cargosimpleclient.Statistics.StockTotalsIndex;
+import com.api.cargosimpleclient.Statistics.WarehouseInStockStatistics;
+import com.fasterxml.jackson.databind.JsonNode;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общее хранилище товаров на складах.
+ * <p>
+ * Помимо статистики поддерживает индекс остатков по товарам,
+ * по которому представление товаров подсвечивает строки.
+ * Индекс обновляется вместе со списком хранилища, поэтому
+ * изменение остатков на одной странице сразу отражается на другой.
+ * В постраничном режиме полного списка нет, и остатки берутся
+ * из ограниченного кэша {@link StockIndexService}: товары, которых
+ * нет в кэше, догружаются в фоне вместе, после чего версия остатков
+ * увеличивается. Изменения складских записей сбрасывают остатки
+ * затронутых товаров в кэше.
+ */
+public class StockStore extends EntityStore<WarehouseInStockDTO> {
+
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final StockStore INSTANCE = new StockStore();
+
+    private final WarehouseInStockStatistics statistics = new WarehouseInStockStatistics();
+    private final StockTotalsIndex totalsIndex = new StockTotalsIndex();
+
+    private final ReadOnlyLongWrapper totalsVersion = new ReadOnlyLongWrapper();
+
+    private final StockIndexService stockIndexService = new StockIndexService();
+    private final BackgroundTaskService backgroundTaskService = new BackgroundTaskService();
+
+    private boolean pendingLoadScheduled;
+    private long retryAfterNanos;
+
+    private StockStore() {
+        super("/api/warehouse-stocks", WarehouseInStockDTO.class,
+                WarehouseInStockDTO::getId, WarehouseInStockDTO::hasSameValues);
+        statistics.attach(items());
+        totalsIndex.setOnUpdated(this::totalsChanged);
+        totalsIndex.attach(items());
+
+        stateProperty().addListener((_, _, state) -> {
+            if (state == State.PAGED) {
+                totalsChanged();
+            }
+        });
+    }
+
+    public static StockStore getInstance() {
+        return INSTANCE;
+    }
+
+    public WarehouseInStockStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Получение остатков товара по всем складам.
+     * <p>
+     * Сетевых запросов не выполняет и может вызываться
+     * при отрисовке строк таблицы. В постраничном режиме
+     * недостающие остатки догружаются в фоне.
+     *
+     * @param productId Идентификатор товара
+     * @return Остатки товара; нулевые, если товара нет на складах;
+     *         null, если остатки товара еще не получены
+     */
+    public StockTotals totalsFor(Long productId) {
+        if (getState() != State.PAGED) {
+            return totalsIndex.totalsFor(productId);
+        }
+
+        StockTotals totals = stockIndexService.totalsFor(productId);
+        if (stockIndexService.hasPending()) {
+            schedulePendingLoad();
+        }
+        return totals;
+    }
+
+    @Override
+    public void put(WarehouseInStockDTO stock) {
+        WarehouseInStockDTO previous = get(stock.getId());
+        put(stock, previous == null ? null : previous.getProductId());
+    }
+
+    /**
+     * Применение изменения складской записи, которая могла перейти
+     * к другому товару.
+     * <p>
+     * В постраничном режиме прежней записи нет в локальном списке,
+     * поэтому ее товар передается вызывающей стороной, чтобы сбросить
+     * остатки обоих товаров.
+     *
+     * @param stock Измененная запись
+     * @param previousProductId Товар записи до изменения или null
+     */
+    public void put(WarehouseInStockDTO stock, Long previousProductId) {
+        if (previousProductId != null) {
+            StockIndexService.invalidate(previousProductId);
+        }
+        StockIndexService.invalidate(stock.getProductId());
+        super.put(stock);
+    }
+
+    /**
+     * Применение удаления складской записи на сервере.
+     * <p>
+     * В отличие от {@link #remove(Long)}, сбрасывает остатки товара
+     * и в постраничном режиме, где записи нет в локальном списке.
+     *
+     * @param stock Удаленная запись
+     */
+    public void remove(WarehouseInStockDTO stock) {
+        StockIndexService.invalidate(stock.getProductId());
+        remove(stock.getId());
+    }
+
+    /**
+     * В постраничном режиме полученные события сбрасывают остатки
+     * измененных записей в кэше, чтобы видимые строки перезапросили их.
+     * Товар удаленной записи из события неизвестен, и его остатки
+     * обновятся по истечении срока хранения кэша.
+     */
+    @Override
+    void applyPushed(JsonNode event) throws IOException {
+        if (getState() != State.PAGED) {
+            super.applyPushed(event);
+            return;
+        }
+        for (JsonNode stock : event.path("changed")) {
+            StockIndexService.invalidate(stock.path("productId").asLong());
+        }
+        totalsChanged();
+    }
+
+    /**
+     * Номер версии остатков, увеличивается при каждом их изменении.
+     * <p>
+     * Позволяет представлениям перерисовать строки,
+     * зависящие от остатков.
+     *
+     * @return Свойство версии остатков
+     */
+    public ReadOnlyLongProperty totalsVersionProperty() {
+        return totalsVersion.getReadOnlyProperty();
+    }
+
+    private void totalsChanged() {
+        totalsVersion.set(totalsVersion.get() + 1);
+    }
+
+    /**
+     * Загрузка остатков, запрошенных при отрисовке.
+     * <p>
+     * Запуск откладывается до конца текущего кадра, чтобы
+     * товары всех видимых строк попали в одну загрузку.
+     * После ошибки повтор выполняется не раньше чем через
+     * {@link #RETRY_DELAY_NANOS}, иначе каждая перерисовка
+     * таблицы повторяла бы неудачный запрос.
+     */
+    private void schedulePendingLoad() {
+        if (pendingLoadScheduled || retryAfterNanos != 0 && System.nanoTime() - retryAfterNanos < 0) {
+            return;
+        }
+        pendingLoadScheduled = true;
+
+        Platform.runLater(() -> backgroundTaskService.submit(
+                stockIndexService::loadPending,
+                _ -> {
+                    pendingLoadScheduled = false;
+                    totalsChanged();
+                },
+                throwable -> {
+                    pendingLoadScheduled = false;
+                    retryAfterNanos = System.nanoTime() + RETRY_DELAY_NANOS;
+                    loadFailed(throwable);
+                },
+                () -> pendingLoadScheduled = false
+        ));
+    }
+}
@@ -0,0 +1,30 @@
+package com.api.cargosimpleclient.Stores;
+
+import com.api.cargosimpleclient.DTO.WarehouseDTO;
+import com.api.cargosimpleclient.Statistics.WarehouseStatistics;
+
+/**
+ * Общее хранилище складов.
+ * <p>
+ * Статистика складов поддерживается по списку хранилища
+ * и используется всеми представлениями.
+ */
+public class WarehouseStore extends EntityStore<WarehouseDTO> {
+
+    private static final WarehouseStore INSTANCE = new WarehouseStore();
+
+    private final WarehouseStatistics statistics = new WarehouseStatistics();
+
+    private WarehouseStore() {
+        super("/api/warehouses", WarehouseDTO.class, WarehouseDTO::getId, WarehouseDTO::hasSameValues);
+        statistics.attach(items());
+    }
+
+    public static WarehouseStore getInstance() {
+        return INSTANCE;
+    }
+
+    public WarehouseStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -7,15 +7,12 @@ module com.api.cargosimpleclient {
     requires org.kordamp.bootstrapfx.core;
     requires jdk.jfr;
     requires static lombok;
-    requires okhttp3;
-    requires com.google.gson;
     requires java.net.http;
     requires com.fasterxml.jackson.databind;
+    requires com.fasterxml.jackson.dataformat.smile;
     requires java.xml;
-    requires annotations;
 
     opens com.api.cargosimpleclient to javafx.fxml;
-    opens com.api.cargosimpleclient.DTO to com.google.gson;
     opens com.api.cargosimpleclient.Services to javafx.fxml;
     opens com.api.cargosimpleclient.Controllers to javafx.fxml;
     opens com.api.cargosimpleclient.Controllers.Products to javafx.fxml;
@@ -24,7 +21,11 @@ module com.api.cargosimpleclient {
 
     exports com.api.cargosimpleclient;
     exports com.api.cargosimpleclient.DTO;
+    exports com.api.cargosimpleclient.Filters;
+    exports com.api.cargosimpleclient.Paging;
     exports com.api.cargosimpleclient.Services;
+    exports com.api.cargosimpleclient.Statistics;
+    exports com.api.cargosimpleclient.Stores;
     exports com.api.cargosimpleclient.Controllers;
     exports com.api.cargosimpleclient.Controllers.Products;
     exports com.api.cargosimpleclient.Controllers.WarehousesInStock;
@@ -0,0 +1,488 @@
+package com.api.cargosimpleclient.DevServer;
+
+import com.api.cargosimpleclient.Services.CodecService;
+import com.api.cargosimpleclient.Services.EventStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.System.Logger.Level;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Локальный сервер-заглушка для замеров загрузки списков.
+ * <p>
+ * Отдает сгенерированные товары, склады и остатки по тем же путям,
+ * что и сервер приложения, и поддерживает:
+ * - JSON и Smile по заголовку Accept
+ * - Сжатие gzip по заголовку Accept-Encoding
+ * - ETag и ответ 304 по заголовку If-None-Match
+ * - Постраничную выдачу (свойство {@code cargo.standin.paged})
+ * - Получение изменений по пути {@code <список>/changes?since=}
+ * - Складские записи одного товара по пути
+ *   {@code /api/warehouse-stocks/product/{id}}
+ * - Поток событий {@code /api/events} (text/event-stream)
+ * <p>
+ * Чтобы было что получать, заглушка раз в {@code cargo.standin.changes.interval}
+ * миллисекунд (по умолчанию 5000, 0 отключает) меняет количество
+ * случайной складской записи, а каждый десятый раз - и цену случайного
+ * товара. Изменение увеличивает версию списка, попадает в ответ
+ * {@code /changes} и рассылается подключенным клиентам событием
+ * с именем пути списка.
+ * <p>
+ * Находится в тестовых исходниках и в клиент не входит. Запускается
+ * отдельно от клиента из тестовых классов, например:
+ * {@code java --add-modules jdk.httpserver -cp target/classes:target/test-classes:...
+ * com.api.cargosimpleclient.DevServer.StandInServer}.
+ * Для каждого запроса в журнал (уровень DEBUG) пишутся формат, объем ответа
+ * и время его подготовки;
+ * время разбора на стороне клиента показывает {@link CodecService#getDecodeStats()}.
+ * Изменяющие запросы клиента не поддерживаются.
+ */
+public class StandInServer {
+
+    private static final System.Logger LOG = System.getLogger(StandInServer.class.getName());
+
+    private static final int PORT = Integer.getInteger("cargo.standin.port", 8081);
+    private static final int PRODUCTS = Integer.getInteger("cargo.standin.products", 100_000);
+    private static final int WAREHOUSES = Integer.getInteger("cargo.standin.warehouses", 50);
+    private static final int STOCKS_PER_PRODUCT = Integer.getInteger("cargo.standin.stocks.per.product", 2);
+    private static final boolean PAGED = Boolean.getBoolean("cargo.standin.paged");
+    private static final long CHANGES_INTERVAL_MILLIS = Long.getLong("cargo.standin.changes.interval", 5_000);
+    private static final long KEEP_ALIVE_SECONDS = 15;
+
+    private static final String EVENTS_PATH = "/api/events";
+    private static final String STOCKS_PATH = "/api/warehouse-stocks";
+    private static final String STOCKS_BY_PRODUCT_PATH = STOCKS_PATH + "/product/";
+    private static final String PRODUCT_IDS_PARAMETER = "productIds";
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper SMILE_MAPPER = new SmileMapper();
+
+    private final Map<String, List<Map<String, Object>>> datasets = new LinkedHashMap<>();
+    private final Map<String, byte[]> fullBodies = new ConcurrentHashMap<>();
+    private final String version = Long.toHexString(System.currentTimeMillis());
+
+    /**
+     * Блокировка данных: изменение записей и их сериализация не пересекаются.
+     */
+    private final Object lock = new Object();
+    private final Map<String, Long> dataVersions = new HashMap<>();
+    /**
+     * Для каждого списка: идентификатор измененной записи и версия, в которой она изменена.
+     */
+    private final Map<String, Map<Long, Long>> changeLog = new HashMap<>();
+    /**
+     * Складские записи по товарам; товар записи заглушка не меняет.
+     */
+    private final Map<Long, List<Map<String, Object>>> stocksByProduct = new HashMap<>();
+    private final Set<BlockingQueue<String>> subscribers = ConcurrentHashMap.newKeySet();
+    private long changeCount;
+
+    public static void main(String[] args) throws IOException {
+        new StandInServer().start();
+    }
+
+    private StandInServer() {
+        datasets.put("/api/products", generateProducts());
+        datasets.put("/api/warehouses", generateWarehouses());
+        datasets.put("/api/warehouse-stocks", generateStocks());
+        for (Map<String, Object> stock : datasets.get("/api/warehouse-stocks")) {
+            stocksByProduct.computeIfAbsent((Long) stock.get("productId"), _ -> new ArrayList<>()).add(stock);
+        }
+        for (String path : datasets.keySet()) {
+            dataVersions.put(path, 1L);
+            changeLog.put(path, new HashMap<>());
+        }
+    }
+
+    private void start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        for (String path : datasets.keySet()) {
+            server.createContext(path, exchange -> {
+                try (exchange) {
+                    handle(path, exchange);
+                }
+            });
+        }
+        server.createContext(EVENTS_PATH, exchange -> {
+            try (exchange) {
+                handleEvents(exchange);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        if (CHANGES_INTERVAL_MILLIS > 0) {
+            Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(
+                    this::changeRandomItem, CHANGES_INTERVAL_MILLIS, CHANGES_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        LOG.log(Level.INFO, () -> String.format(
+                "Stand-in server on port %d: %d products, %d warehouses, paged=%s, changes every %d ms",
+                PORT, PRODUCTS, WAREHOUSES, PAGED, CHANGES_INTERVAL_MILLIS));
+    }
+
+    private void handle(String path, HttpExchange exchange) throws IOException {
+        String requestPath = exchange.getRequestURI().getPath();
+        if ("GET".equals(exchange.getRequestMethod()) && requestPath.startsWith(STOCKS_BY_PRODUCT_PATH)) {
+            handleStocksByProduct(requestPath.substring(STOCKS_BY_PRODUCT_PATH.length()), exchange);
+            return;
+        }
+        if ("GET".equals(exchange.getRequestMethod())
+                && (path + "/changes").equals(exchange.getRequestURI().getPath())) {
+            handleChanges(path, exchange);
+            return;
+        }
+        if (!"GET".equals(exchange.getRequestMethod()) || !path.equals(exchange.getRequestURI().getPath())) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean smile = header(exchange, "Accept").contains(CodecService.SMILE_MEDIA_TYPE);
+        boolean gzip = header(exchange, "Accept-Encoding").contains("gzip");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (STOCKS_PATH.equals(path) && query.containsKey(PRODUCT_IDS_PARAMETER)) {
+            handleStocksByProducts(query.get(PRODUCT_IDS_PARAMETER), exchange);
+            return;
+        }
+        boolean paged = PAGED && query.containsKey("page");
+
+        String etag = "\"" + version + "-" + dataVersion(path) + (smile ? "-smile" : "-json")
+                + (paged ? "-" + query.get("page") + "-" + query.get("size") : "") + "\"";
+
+        exchange.getResponseHeaders().add("Vary", "Accept, Accept-Encoding");
+        exchange.getResponseHeaders().add("ETag", etag);
+        if (etag.equals(header(exchange, "If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            log(path, smile, gzip, 304, 0, startNanos);
+            return;
+        }
+
+        byte[] body = paged ? pageBody(path, query, smile) : fullBody(path, smile);
+        if (gzip) {
+            body = gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().add("Content-Type",
+                smile ? CodecService.SMILE_MEDIA_TYPE : CodecService.JSON_MEDIA_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        log(path, smile, gzip, 200, body.length, startNanos);
+    }
+
+    private void handleStocksByProduct(String productId, HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        long id;
+        try {
+            id = Long.parseLong(productId);
+        } catch (NumberFormatException e) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        byte[] body;
+        synchronized (lock) {
+            body = JSON_MAPPER.writeValueAsBytes(stocksByProduct.getOrDefault(id, List.of()));
+        }
+        exchange.getResponseHeaders().add("Content-Type", CodecService.JSON_MEDIA_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        log(STOCKS_BY_PRODUCT_PATH + id, false, false, 200, body.length, startNanos);
+    }
+
+    /**
+     * Складские записи нескольких товаров: /api/warehouse-stocks?productIds=1,2,3.
+     */
+    private void handleStocksByProducts(String productIds, HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String productId : productIds.split(",")) {
+                ids.add(Long.parseLong(productId));
+            }
+        } catch (NumberFormatException e) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        byte[] body;
+        synchronized (lock) {
+            List<Map<String, Object>> stocks = new ArrayList<>();
+            for (Long id : ids) {
+                stocks.addAll(stocksByProduct.getOrDefault(id, List.of()));
+            }
+            body = JSON_MAPPER.writeValueAsBytes(stocks);
+        }
+        exchange.getResponseHeaders().add("Content-Type", CodecService.JSON_MEDIA_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        log(STOCKS_PATH + "?" + PRODUCT_IDS_PARAMETER + "=[" + ids.size() + "]", false, false, 200, body.length, startNanos);
+    }
+
+    private void handleChanges(String path, HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        String since = parseQuery(exchange.getRequestURI().getRawQuery()).get("since");
+
+        byte[] body;
+        synchronized (lock) {
+            List<Map<String, Object>> changed = new ArrayList<>();
+            if (since != null) {
+                long sinceVersion = Long.parseLong(since);
+                changeLog.get(path).forEach((id, changedIn) -> {
+                    if (changedIn > sinceVersion) {
+                        changed.add(itemById(path, id));
+                    }
+                });
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("version", dataVersions.get(path));
+            result.put("changed", changed);
+            result.put("deleted", List.of());
+            body = JSON_MAPPER.writeValueAsBytes(result);
+        }
+        exchange.getResponseHeaders().add("Content-Type", CodecService.JSON_MEDIA_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        log(path + "/changes", false, false, 200, body.length, startNanos);
+    }
+
+    /**
+     * Поток событий: изменения рассылаются по мере появления, а при их
+     * отсутствии раз в {@value #KEEP_ALIVE_SECONDS} секунд отправляется
+     * комментарий, по которому обнаруживаются отключившиеся клиенты.
+     */
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", EventStreamService.MEDIA_TYPE);
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        subscribers.add(queue);
+        LOG.log(Level.INFO, () -> "Events: client connected, " + subscribers.size() + " total");
+        try {
+            OutputStream out = exchange.getResponseBody();
+            String message = ": connected\n\n";
+            while (true) {
+                out.write(message.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                String event = queue.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                message = event != null ? event : ": keep-alive\n\n";
+            }
+        } catch (IOException | InterruptedException e) {
+            // Клиент отключился или сервер останавливается
+        } finally {
+            subscribers.remove(queue);
+            LOG.log(Level.INFO, () -> "Events: client disconnected, " + subscribers.size() + " total");
+        }
+    }
+
+    private void changeRandomItem() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            List<Map<String, Object>> stocks = datasets.get("/api/warehouse-stocks");
+            Map<String, Object> stock = stocks.get(random.nextInt(stocks.size()));
+            synchronized (lock) {
+                stock.put("currentQuantity", random.nextInt(400));
+                publishChange("/api/warehouse-stocks", stock);
+            }
+
+            if (++changeCount % 10 == 0) {
+                List<Map<String, Object>> products = datasets.get("/api/products");
+                Map<String, Object> product = products.get(random.nextInt(products.size()));
+                synchronized (lock) {
+                    BigDecimal price = (BigDecimal) product.get("sellingPrice");
+                    product.put("sellingPrice", price.add(BigDecimal.ONE));
+                    publishChange("/api/products", product);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Change failed", e);
+        }
+    }
+
+    /**
+     * Увеличение версии списка и рассылка события. Вызывается под {@link #lock}.
+     */
+    private void publishChange(String path, Map<String, Object> item) throws IOException {
+        long since = dataVersions.get(path);
+        long changedIn = since + 1;
+        dataVersions.put(path, changedIn);
+        changeLog.get(path).put((Long) item.get("id"), changedIn);
+        fullBodies.keySet().removeIf(key -> key.startsWith(path + "#"));
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("since", since);
+        event.put("version", changedIn);
+        event.put("changed", List.of(item));
+        event.put("deleted", List.of());
+        String message = "event: " + path + "\ndata: " + JSON_MAPPER.writeValueAsString(event) + "\n\n";
+        for (BlockingQueue<String> queue : subscribers) {
+            queue.offer(message);
+        }
+    }
+
+    /**
+     * Идентификаторы сгенерированных записей идут подряд с единицы.
+     */
+    private Map<String, Object> itemById(String path, long id) {
+        return datasets.get(path).get((int) (id - 1));
+    }
+
+    private long dataVersion(String path) {
+        synchronized (lock) {
+            return dataVersions.get(path);
+        }
+    }
+
+    private byte[] fullBody(String path, boolean smile) throws IOException {
+        String key = path + (smile ? "#smile" : "#json");
+        synchronized (lock) {
+            byte[] body = fullBodies.get(key);
+            if (body == null) {
+                body = mapper(smile).writeValueAsBytes(datasets.get(path));
+                fullBodies.put(key, body);
+            }
+            return body;
+        }
+    }
+
+    private byte[] pageBody(String path, Map<String, String> query, boolean smile) throws IOException {
+        List<Map<String, Object>> items = datasets.get(path);
+        int size = Math.max(1, Integer.parseInt(query.getOrDefault("size", "20")));
+        int page = Math.max(0, Integer.parseInt(query.get("page")));
+        int from = (int) Math.min((long) page * size, items.size());
+        int to = Math.min(from + size, items.size());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", items.subList(from, to));
+        result.put("totalElements", items.size());
+        result.put("number", page);
+        result.put("size", size);
+        synchronized (lock) {
+            return mapper(smile).writeValueAsBytes(result);
+        }
+    }
+
+    private static ObjectMapper mapper(boolean smile) {
+        return smile ? SMILE_MAPPER : JSON_MAPPER;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String header(HttpExchange exchange, String name) {
+        String value = exchange.getRequestHeaders().getFirst(name);
+        return value == null ? "" : value;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+        return parameters;
+    }
+
+    private static void log(String path, boolean smile, boolean gzip, int status, int bytes, long startNanos) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        LOG.log(Level.DEBUG, () -> String.format("GET %s %s%s -> %d, %d bytes, %d ms",
+                path, smile ? "smile" : "json", gzip ? "+gzip" : "", status, bytes, elapsedMillis));
+    }
+
+    private static List<Map<String, Object>> generateProducts() {
+        String[] categories = {"Электроника", "Инструменты", "Упаковка", "Хозтовары", "Стройматериалы"};
+        String[] manufacturers = {"Альфа", "Бета", "Гамма", "Дельта"};
+
+        List<Map<String, Object>> products = new ArrayList<>(PRODUCTS);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            BigDecimal purchasePrice = BigDecimal.valueOf(100 + i % 9_900, 2).add(BigDecimal.TEN);
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", (long) i);
+            product.put("articleNumber", "ART-" + i);
+            product.put("name", "Товар " + i);
+            product.put("description", "Описание товара " + i);
+            product.put("category", categories[i % categories.length]);
+            product.put("manufacturer", manufacturers[i % manufacturers.length]);
+            product.put("purchasePrice", purchasePrice);
+            product.put("sellingPrice", purchasePrice.multiply(BigDecimal.valueOf(13, 1)).setScale(2, RoundingMode.HALF_UP));
+            product.put("minStockLevel", 10);
+            product.put("maxStockLevel", 500);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static List<Map<String, Object>> generateWarehouses() {
+        List<Map<String, Object>> warehouses = new ArrayList<>(WAREHOUSES);
+        for (int i = 1; i <= WAREHOUSES; i++) {
+            Map<String, Object> warehouse = new LinkedHashMap<>();
+            warehouse.put("id", (long) i);
+            warehouse.put("name", "Склад " + i);
+            warehouse.put("address", "ул. Складская, " + i);
+            warehouse.put("contactPerson", "Ответственный " + i);
+            warehouse.put("phone", "+7 900 000-00-" + String.format("%02d", i % 100));
+            warehouse.put("email", "warehouse" + i + "@example.com");
+            warehouse.put("capacity", 10_000 + i * 100);
+            warehouse.put("status", i % 10 == 0 ? "INACTIVE" : "ACTIVE");
+            warehouses.add(warehouse);
+        }
+        return warehouses;
+    }
+
+    private static List<Map<String, Object>> generateStocks() {
+        List<Map<String, Object>> stocks = new ArrayList<>(PRODUCTS * STOCKS_PER_PRODUCT);
+        long id = 1;
+        for (int product = 1; product <= PRODUCTS; product++) {
+            for (int j = 0; j < STOCKS_PER_PRODUCT; j++) {
+                Map<String, Object> stock = new LinkedHashMap<>();
+                stock.put("id", id++);
+                stock.put("productId", (long) product);
+                stock.put("warehouseId", (long) (1 + (product + j) % WAREHOUSES));
+                stock.put("currentQuantity", (product * 7 + j) % 400);
+                stock.put("reservedQuantity", (product + j) % 20);
+                stock.put("location", "R" + (product % 40) + "-S" + j);
+                stocks.add(stock);
+            }
+        }
+        return stocks;
+    }
+}